@@ -0,0 +1,73 @@
+package io.akka.sample.application;
+
+import io.akka.sample.domain.Game;
+import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.GameEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovery of a game entity from the events of a tie-heavy game, through the same event handler as
+ * {@link GameEntity#applyEvent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEntityReplayBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int rounds;
+
+    /**
+     * Moves as {@link GameEvent.CompactMoveMade}, as persisted now, or as {@link GameEvent.MoveMade} of older games.
+     */
+    @Param({"true", "false"})
+    public boolean compactMoves;
+
+    private List<GameEvent> events;
+
+    @Setup
+    public void setup() {
+        events = new ArrayList<>();
+        events.add(new GameEvent.GameCreated("player1"));
+        events.add(new GameEvent.GameStarted("player1", "player2"));
+        for (int i = 0; i < rounds; i++) {
+            events.add(move("player1", 0, Move.SCISSORS));
+            events.add(move("player2", 1, Move.SCISSORS));
+        }
+        events.add(move("player1", 0, Move.ROCK));
+        events.add(move("player2", 1, Move.SCISSORS));
+        events.add(move("player1", 0, Move.ROCK));
+        events.add(move("player2", 1, Move.SCISSORS));
+        events.add(new GameEvent.GameOver("player1", "player2"));
+    }
+
+    private GameEvent move(String playerId, int playerIndex, Move move) {
+        return compactMoves ? new GameEvent.CompactMoveMade(playerIndex, move) : new GameEvent.MoveMade(playerId, move);
+    }
+
+    @Benchmark
+    public Game replay() {
+        Game state = null;
+        for (GameEvent event : events) {
+            state = GameEntity.applyEvent(state, event);
+        }
+        return state;
+    }
+}
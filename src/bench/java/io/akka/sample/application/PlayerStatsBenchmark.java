@@ -0,0 +1,42 @@
+package io.akka.sample.application;
+
+import io.akka.sample.domain.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard row update for a player state change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerStatsBenchmark {
+
+    private Player player;
+
+    @Setup
+    public void setup() {
+        player = new Player("player1", "Alice")
+            .incrementWins("game1")
+            .incrementWins("game2")
+            .incrementLosses("game3");
+    }
+
+    @Benchmark
+    public LeaderboardView.PlayerStats fromPlayer() {
+        return LeaderboardView.PlayerStats.fromPlayer(player);
+    }
+}
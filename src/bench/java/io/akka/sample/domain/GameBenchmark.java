@@ -0,0 +1,73 @@
+package io.akka.sample.domain;
+
+import io.akka.sample.domain.Game.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations on a game that has been going on for {@code rounds} tied rounds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({"1", "1000"})
+    public int rounds;
+
+    private Game game;
+    private Game gameWithOneMoreMove;
+
+    @Setup
+    public void setup() {
+        game = new Game("player1", Optional.of("player2"));
+        for (int i = 0; i < rounds; i++) {
+            game = game.addMove("player1", Move.PAPER);
+            game = game.addMove("player2", Move.PAPER);
+        }
+        gameWithOneMoreMove = game.addMove("player1", Move.ROCK);
+    }
+
+    @Benchmark
+    public Game addFirstMoveOfRound() {
+        return game.addMove("player1", Move.ROCK);
+    }
+
+    @Benchmark
+    public Game addMoveCompletingRound() {
+        return gameWithOneMoreMove.addMove("player2", Move.SCISSORS);
+    }
+
+    @Benchmark
+    public Game.Result evaluateWinner() {
+        return game.evaluateWinner();
+    }
+
+    @Benchmark
+    public int scores() {
+        return game.getFirstPlayerScore() + game.getSecondPlayerScore();
+    }
+
+    /**
+     * Scores derived from the moves only, as for a snapshot stored before scores were part of the state.
+     */
+    @Benchmark
+    public Game deriveScores() {
+        return new Game(game.firstPlayerId(), game.secondPlayerId(), game.firstPlayerMoves(), game.secondPlayerMoves());
+    }
+}
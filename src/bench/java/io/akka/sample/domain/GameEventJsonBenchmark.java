@@ -0,0 +1,52 @@
+package io.akka.sample.domain;
+
+import akka.javasdk.JsonSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.akka.sample.domain.Game.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a move event from its stored JSON, as done for every move when a game is replayed, for the compact event
+ * that is persisted now and the event with the player id and move name of older games.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEventJsonBenchmark {
+
+    private final ObjectMapper objectMapper = JsonSupport.getObjectMapper();
+    private byte[] moveMadeJson;
+    private byte[] compactMoveMadeJson;
+
+    @Setup
+    public void setup() throws Exception {
+        moveMadeJson = objectMapper.writeValueAsBytes(
+            new GameEvent.MoveMade(UUID.randomUUID().toString(), Move.SCISSORS));
+        compactMoveMadeJson = objectMapper.writeValueAsBytes(new GameEvent.CompactMoveMade(1, Move.SCISSORS));
+    }
+
+    @Benchmark
+    public GameEvent.MoveMade readMoveMade() throws Exception {
+        return objectMapper.readValue(moveMadeJson, GameEvent.MoveMade.class);
+    }
+
+    @Benchmark
+    public GameEvent.CompactMoveMade readCompactMoveMade() throws Exception {
+        return objectMapper.readValue(compactMoveMadeJson, GameEvent.CompactMoveMade.class);
+    }
+}
@@ -0,0 +1,61 @@
+package io.akka.sample.domain;
+
+import io.akka.sample.domain.Game.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds a tie-heavy game move by move, the same way as replaying its events does.
+ * <p>
+ * {@code replayCopyingLists} copies both move lists for every move, as {@link Game#addMove} did before moves were
+ * kept in a {@link MoveLog}, and is the reference for the quadratic cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameReplayBenchmark {
+
+    @Param({"100", "10000"})
+    public int rounds;
+
+    @Benchmark
+    public Game replay() {
+        Game game = new Game("player1", Optional.of("player2"));
+        for (int i = 0; i < rounds; i++) {
+            game = game.addMove("player1", Move.ROCK);
+            game = game.addMove("player2", Move.ROCK);
+        }
+        return game;
+    }
+
+    @Benchmark
+    public List<Move> replayCopyingLists() {
+        List<Move> firstPlayerMoves = new ArrayList<>();
+        List<Move> secondPlayerMoves = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            firstPlayerMoves = new ArrayList<>(firstPlayerMoves);
+            secondPlayerMoves = new ArrayList<>(secondPlayerMoves);
+            firstPlayerMoves.add(Move.ROCK);
+            firstPlayerMoves = new ArrayList<>(firstPlayerMoves);
+            secondPlayerMoves = new ArrayList<>(secondPlayerMoves);
+            secondPlayerMoves.add(Move.ROCK);
+        }
+        return secondPlayerMoves;
+    }
+}
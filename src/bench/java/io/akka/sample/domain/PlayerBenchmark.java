@@ -0,0 +1,56 @@
+package io.akka.sample.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics updates of a player with a full history of recent games.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+
+    private Player player;
+
+    @Setup
+    public void setup() {
+        player = new Player("player1", "Alice");
+        for (int i = 0; i < 100; i++) {
+            player = i % 2 == 0 ? player.incrementWins("game" + i) : player.incrementLosses("game" + i);
+        }
+    }
+
+    @Benchmark
+    public Player incrementWins() {
+        return player.incrementWins("new-game");
+    }
+
+    @Benchmark
+    public Player incrementLosses() {
+        return player.incrementLosses("new-game");
+    }
+
+    @Benchmark
+    public boolean hasRecordedGameHit() {
+        return player.hasRecordedGame("game99");
+    }
+
+    @Benchmark
+    public boolean hasRecordedGameMiss() {
+        return player.hasRecordedGame("new-game");
+    }
+}
@@ -0,0 +1,166 @@
+package io.akka.sample.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.akka.sample.api.LatencyHistogram;
+import io.akka.sample.domain.Game.Move;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many concurrent games against a running service through the {@code /game} HTTP API, and reports the latency
+ * percentiles and throughput of each endpoint.
+ * <p>
+ * Every pair of players creates both players, joins its own lobby and plays until there is a winner, each game on its
+ * own virtual thread. The winner is read from the game state that each move replies with. Run against a service started with {@code mvn compile exec:java}:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@load -Dload.args="--players 2000 --moves ties"
+ * </pre>
+ * Options:
+ * <ul>
+ *   <li>{@code --url} base url of the service, default {@code http://localhost:9000}</li>
+ *   <li>{@code --players} number of players, two per game, default 1000</li>
+ *   <li>{@code --concurrency} maximum number of games played at the same time, default 200</li>
+ *   <li>{@code --moves} {@code random}, or {@code ties} where 9 out of 10 rounds are a tie, default random</li>
+ * </ul>
+ */
+public class LoadGenerator {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Move[] MOVES = Move.values();
+    private static final int MAX_ROUNDS = 10_000;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String url;
+    private final boolean tieHeavy;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+    private final AtomicLong gamesCompleted = new AtomicLong();
+    private final AtomicLong gamesFailed = new AtomicLong();
+
+    private LoadGenerator(String url, boolean tieHeavy) {
+        this.url = url;
+        this.tieHeavy = tieHeavy;
+        for (String endpoint : new String[]{
+            "POST /game/player", "POST /game/lobby/{lobbyId}/join", "POST /game/{gameId}/move"}) {
+            histograms.put(endpoint, new LatencyHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        String url = options.getOrDefault("--url", "http://localhost:9000");
+        int players = Integer.parseInt(options.getOrDefault("--players", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("--concurrency", "200"));
+        boolean tieHeavy = options.getOrDefault("--moves", "random").equals("ties");
+
+        new LoadGenerator(url, tieHeavy).run(players / 2, concurrency);
+    }
+
+    private void run(int games, int concurrency) throws InterruptedException {
+        System.out.printf("Playing %d games against %s, at most %d at a time%n", games, url, concurrency);
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < games; i++) {
+                int game = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        playGame(game);
+                        gamesCompleted.incrementAndGet();
+                    } catch (Exception e) {
+                        gamesFailed.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        report(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void playGame(int game) throws Exception {
+        String player1 = "load-" + runId + "-" + game + "-1";
+        String player2 = "load-" + runId + "-" + game + "-2";
+        String lobby = "load-" + runId + "-" + game;
+
+        post("POST /game/player", "/game/player", Map.of("id", player1, "name", player1));
+        post("POST /game/player", "/game/player", Map.of("id", player2, "name", player2));
+        post("POST /game/lobby/{lobbyId}/join", "/game/lobby/" + lobby + "/join", Map.of("playerId", player1));
+        String gameId = post("POST /game/lobby/{lobbyId}/join", "/game/lobby/" + lobby + "/join",
+            Map.of("playerId", player2)).get("gameId").asText();
+
+        JsonNode state = objectMapper.nullNode();
+        for (int round = 0; round < MAX_ROUNDS && !state.hasNonNull("winnerId"); round++) {
+            Move move1 = randomMove();
+            Move move2 = tieHeavy && ThreadLocalRandom.current().nextInt(10) != 0 ? move1 : randomMove();
+            post("POST /game/{gameId}/move", "/game/" + gameId + "/move",
+                Map.of("playerId", player1, "move", move1.name()));
+            state = post("POST /game/{gameId}/move", "/game/" + gameId + "/move",
+                Map.of("playerId", player2, "move", move2.name()));
+        }
+
+        if (!state.hasNonNull("winnerId")) {
+            throw new IllegalStateException("Game " + gameId + " has no winner");
+        }
+    }
+
+    private static Move randomMove() {
+        return MOVES[ThreadLocalRandom.current().nextInt(MOVES.length)];
+    }
+
+    private JsonNode post(String endpoint, String path, Map<String, String> body) throws Exception {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(url + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build());
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request) throws Exception {
+        LatencyHistogram histogram = histograms.get(endpoint);
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            histogram.recordError();
+            throw e;
+        }
+        histogram.record((System.nanoTime() - start) / 1000);
+        if (response.statusCode() >= 300) {
+            histogram.recordError();
+            throw new IllegalStateException(endpoint + " failed with status " + response.statusCode());
+        }
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+
+    private void report(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        System.out.printf("%d games completed, %d failed, in %.1f s (%.1f games/s)%n",
+            gamesCompleted.get(), gamesFailed.get(), seconds, gamesCompleted.get() / seconds);
+        System.out.printf("%-32s %10s %10s %10s %10s %10s %8s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        histograms.forEach((endpoint, histogram) -> System.out.printf("%-32s %10d %10.1f %10.2f %10.2f %10.2f %8d%n",
+            endpoint,
+            histogram.count(),
+            histogram.count() / seconds,
+            histogram.quantile(0.5) / 1000.0,
+            histogram.quantile(0.99) / 1000.0,
+            histogram.quantile(0.999) / 1000.0,
+            histogram.errors()));
+    }
+}
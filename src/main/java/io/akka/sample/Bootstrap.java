@@ -0,0 +1,72 @@
+package io.akka.sample;
+
+import akka.javasdk.DependencyProvider;
+import akka.javasdk.ServiceSetup;
+import akka.javasdk.annotations.Setup;
+import akka.javasdk.client.ComponentClient;
+import akka.stream.Materializer;
+import com.typesafe.config.Config;
+import io.akka.sample.api.EndpointMetrics;
+import io.akka.sample.api.LeaderboardCache;
+import io.akka.sample.api.LeaderboardStream;
+import io.akka.sample.api.LobbyShards;
+import io.akka.sample.application.LeaderboardView;
+import io.akka.sample.application.MatchmakingMetrics;
+import io.akka.sample.application.Tracing;
+import io.akka.sample.application.TournamentRunner;
+
+import java.util.Map;
+
+/**
+ * Provides the components that are shared by all requests on a node.
+ */
+@Setup
+public class Bootstrap implements ServiceSetup {
+
+  private final ComponentClient componentClient;
+  private final Materializer materializer;
+  private final Config config;
+
+  public Bootstrap(ComponentClient componentClient, Materializer materializer, Config config) {
+    this.componentClient = componentClient;
+    this.materializer = materializer;
+    this.config = config;
+    Tracing.configure(config);
+  }
+
+  @Override
+  public DependencyProvider createDependencyProvider() {
+    var leaderboardStream = new LeaderboardStream(
+        componentClient,
+        materializer,
+        config.getInt("rock-paper-scissors.leaderboard.size"),
+        config.getInt("rock-paper-scissors.leaderboard.ranking-margin"));
+    var leaderboardCache = new LeaderboardCache(
+        maxResults -> componentClient.forView()
+            .method(LeaderboardView::getTopPlayers)
+            .invokeAsync(maxResults),
+        config.getDuration("rock-paper-scissors.leaderboard.cache-ttl"),
+        config.getDuration("rock-paper-scissors.leaderboard.query-timeout"));
+
+    var lobbyShards = new LobbyShards(config.getInt("rock-paper-scissors.lobby.shards"));
+
+    Map<Class<?>, Object> dependencies = Map.of(
+        LeaderboardStream.class, leaderboardStream,
+        LeaderboardCache.class, leaderboardCache,
+        LobbyShards.class, lobbyShards,
+        EndpointMetrics.class, new EndpointMetrics(),
+        MatchmakingMetrics.class, new MatchmakingMetrics(),
+        TournamentRunner.class, new TournamentRunner(componentClient));
+
+    return new DependencyProvider() {
+      @Override
+      public <T> T getDependency(Class<T> clazz) {
+        Object dependency = dependencies.get(clazz);
+        if (dependency == null) {
+          throw new IllegalArgumentException("No dependency of type " + clazz.getName());
+        }
+        return clazz.cast(dependency);
+      }
+    };
+  }
+}
@@ -0,0 +1,111 @@
+package io.akka.sample.api;
+
+import akka.javasdk.http.HttpException;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Latency and errors of each route of the endpoints on a node, shared by all requests on the node and written in the
+ * Prometheus text format by {@link MetricsEndpoint}.
+ * <p>
+ * Errors are counted by category, derived from the error messages of the entities, such as {@code not_found} or
+ * {@code invalid_move_order}.
+ */
+public final class EndpointMetrics {
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  private static final class RouteMetrics {
+    final LatencyHistogram latency = new LatencyHistogram();
+    final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+  }
+
+  private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+  /**
+   * Runs the call of the route and records its latency when it completes, and its error category if it fails.
+   */
+  public <T> CompletionStage<T> record(String route, Supplier<CompletionStage<T>> call) {
+    RouteMetrics metrics = routes.computeIfAbsent(route, __ -> new RouteMetrics());
+    long start = System.nanoTime();
+    CompletionStage<T> result;
+    try {
+      result = call.get();
+    } catch (RuntimeException e) {
+      recordCompletion(metrics, start, e);
+      throw e;
+    }
+    return result.whenComplete((__, error) -> recordCompletion(metrics, start, error));
+  }
+
+  private static void recordCompletion(RouteMetrics metrics, long startNanos, Throwable error) {
+    metrics.latency.record((System.nanoTime() - startNanos) / 1000);
+    if (error != null) {
+      metrics.latency.recordError();
+      metrics.errors.computeIfAbsent(errorCategory(error), __ -> new LongAdder()).increment();
+    }
+  }
+
+  static String errorCategory(Throwable error) {
+    Throwable cause = error;
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof HttpException) {
+      return "bad_request";
+    }
+    String message = cause.getMessage() == null ? "" : cause.getMessage();
+    if (message.contains("No game found") || message.contains("not found")) {
+      return "not_found";
+    } else if (message.contains("is not a player")) {
+      return "not_a_player";
+    } else if (message.contains("Invalid move order")) {
+      return "invalid_move_order";
+    } else if (message.contains("Game is over")) {
+      return "game_over";
+    } else if (message.contains("Game already started")) {
+      return "game_already_started";
+    } else if (message.contains("until second player joins")) {
+      return "game_not_started";
+    } else if (message.contains("same player") || message.contains("both players")) {
+      return "same_players";
+    } else if (cause instanceof IllegalArgumentException) {
+      return "bad_request";
+    } else {
+      return "internal";
+    }
+  }
+
+  /**
+   * Appends the metrics of all routes in the Prometheus text format.
+   */
+  public void writePrometheus(StringBuilder out) {
+    Map<String, RouteMetrics> snapshot = Map.copyOf(routes);
+
+    out.append("# HELP http_request_duration_seconds Latency of the requests of each route.\n");
+    out.append("# TYPE http_request_duration_seconds summary\n");
+    snapshot.forEach((route, metrics) -> {
+      for (double quantile : QUANTILES) {
+        out.append("http_request_duration_seconds{route=\"").append(route)
+            .append("\",quantile=\"").append(quantile).append("\"} ")
+            .append(metrics.latency.quantile(quantile) / 1e6).append('\n');
+      }
+      out.append("http_request_duration_seconds_sum{route=\"").append(route).append("\"} ")
+          .append(metrics.latency.sum() / 1e6).append('\n');
+      out.append("http_request_duration_seconds_count{route=\"").append(route).append("\"} ")
+          .append(metrics.latency.count()).append('\n');
+    });
+
+    out.append("# HELP http_request_errors_total Failed requests of each route, by error category.\n");
+    out.append("# TYPE http_request_errors_total counter\n");
+    snapshot.forEach((route, metrics) -> metrics.errors.forEach((category, count) ->
+        out.append("http_request_errors_total{route=\"").append(route)
+            .append("\",category=\"").append(category).append("\"} ")
+            .append(count.sum()).append('\n')));
+  }
+}
@@ -0,0 +1,47 @@
+package io.akka.sample.api;
+
+import java.util.OptionalLong;
+
+/**
+ * HTTP entity tags of game states, made from the sequence number of the latest event of the game, so that a client or
+ * proxy that has the current state is answered with {@code 304 Not Modified}.
+ */
+final class EntityTags {
+
+  /**
+   * Cache-Control of a game that is over, which doesn't change anymore.
+   */
+  static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+  /**
+   * Cache-Control of a game in progress, which caches may store but must revalidate with the entity tag.
+   */
+  static final String REVALIDATE = "no-cache";
+
+  private EntityTags() {}
+
+  static String of(long sequenceNumber) {
+    return "\"" + sequenceNumber + "\"";
+  }
+
+  /**
+   * The sequence number of the first tag in an {@code If-None-Match} header that is a tag of a game state, weak or
+   * strong, if any.
+   */
+  static OptionalLong sequenceNumber(String ifNoneMatch) {
+    for (String tag : ifNoneMatch.split(",")) {
+      String value = tag.trim();
+      if (value.startsWith("W/")) {
+        value = value.substring(2);
+      }
+      if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+        try {
+          return OptionalLong.of(Long.parseLong(value.substring(1, value.length() - 1)));
+        } catch (NumberFormatException e) {
+          // not a tag of a game state
+        }
+      }
+    }
+    return OptionalLong.empty();
+  }
+}
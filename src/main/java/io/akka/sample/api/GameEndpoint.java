@@ -1,31 +1,50 @@
 package io.akka.sample.api;
 
+import akka.Done;
 import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCodes;
+import akka.http.javadsl.model.headers.RawHeader;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.http.HttpEndpoint;
 import akka.javasdk.annotations.http.Get;
 import akka.javasdk.annotations.http.Post;
 import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import akka.javasdk.http.HttpException;
 import akka.javasdk.http.HttpResponses;
+import com.typesafe.config.Config;
 import io.akka.sample.application.GameEntity;
+import io.akka.sample.application.GameHistoryView;
+import io.akka.sample.application.GameStateView;
 import io.akka.sample.application.LeaderboardView;
 import io.akka.sample.application.LobbyEntity;
+import io.akka.sample.application.MatchmakingQueueEntity;
+import io.akka.sample.application.PlayerMatchEntity;
 import io.akka.sample.application.PlayerEntity;
+import io.akka.sample.application.PlayerMatchHistoryView;
+import io.akka.sample.domain.Game;
 import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.LobbyState;
+import io.akka.sample.domain.MatchmakingQueue;
 import io.akka.sample.domain.Player;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 
 @Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
 @HttpEndpoint("/game")
-public class GameEndpoint {
+public class GameEndpoint extends AbstractHttpEndpoint {
 
     public record CreatePlayerRequest(String id, String name) {}
     public record GetPlayerResponse(String id, String name) {}
+    public record PlayerGame(String gameId, String opponentId, boolean won, long endedAt) {}
+    public record PlayerGamesResponse(List<PlayerGame> games, Optional<String> nextPageToken) {}
     public record JoinLobbyRequest(String playerId) {}
     public record JoinLobbyResponse(Optional<String> player1Id, Optional<String> player2Id, String gameId) {}
+    public record JoinQueueRequest(String playerId) {}
     public record GetGameStateResponse(
         String firstPlayerId,
         Optional<String> secondPlayerId,
@@ -39,91 +58,444 @@ public class GameEndpoint {
         Optional<String> winnerId
     ) {}
     public record MakeMoveRequest(String playerId, String move) {}
+    public record GameMoves(String gameId, List<MakeMoveRequest> moves) {}
+    public record MakeMovesRequest(List<GameMoves> games) {}
+    public record GameMovesResult(String gameId, Optional<String> error) {}
+    public record MakeMovesResponse(List<GameMovesResult> games) {}
 
     private final ComponentClient componentClient;
+    private final LeaderboardStream leaderboardStream;
+    private final LeaderboardCache leaderboardCache;
+    private final LobbyShards lobbyShards;
+    private final EndpointMetrics metrics;
+    private final int gameHistoryCapacity;
+    private final int defaultLeaderboardSize;
+    private final int maxLeaderboardSize;
+    private final int defaultMatchHistoryPageSize;
+    private final int maxMatchHistoryPageSize;
 
-    public GameEndpoint(ComponentClient componentClient) {
+    public GameEndpoint(
+        ComponentClient componentClient,
+        LeaderboardStream leaderboardStream,
+        LeaderboardCache leaderboardCache,
+        LobbyShards lobbyShards,
+        EndpointMetrics metrics,
+        Config config
+    ) {
         this.componentClient = componentClient;
+        this.leaderboardStream = leaderboardStream;
+        this.leaderboardCache = leaderboardCache;
+        this.lobbyShards = lobbyShards;
+        this.metrics = metrics;
+        this.gameHistoryCapacity = config.getInt("rock-paper-scissors.player.game-history-capacity");
+        this.defaultLeaderboardSize = config.getInt("rock-paper-scissors.leaderboard.size");
+        this.maxLeaderboardSize = config.getInt("rock-paper-scissors.leaderboard.max-results-limit");
+        this.defaultMatchHistoryPageSize = config.getInt("rock-paper-scissors.match-history.page-size");
+        this.maxMatchHistoryPageSize = config.getInt("rock-paper-scissors.match-history.max-page-size");
     }
 
     @Post("/player")
     public CompletionStage<HttpResponse> createPlayer(CreatePlayerRequest request) {
-        return componentClient.forKeyValueEntity(request.id())
-            .method(PlayerEntity::createPlayer)
-            .invokeAsync(new Player(request.id(), request.name()))
-            .thenApply(__ -> HttpResponses.created());
+        return metrics.record("POST /game/player", () ->
+            componentClient.forKeyValueEntity(request.id())
+                .method(PlayerEntity::createPlayer)
+                .invokeAsync(new Player(request.id(), request.name(), gameHistoryCapacity))
+                .thenApply(__ -> HttpResponses.created()));
     }
 
     @Get("/player/{playerId}")
     public CompletionStage<GetPlayerResponse> getPlayer(String playerId) {
-        return componentClient.forKeyValueEntity(playerId)
-            .method(PlayerEntity::getPlayer)
-            .invokeAsync()
-            .thenApply(playerState -> new GetPlayerResponse(playerState.id(), playerState.name()));
+        return metrics.record("GET /game/player/{playerId}", () ->
+            componentClient.forKeyValueEntity(playerId)
+                .method(PlayerEntity::getPlayer)
+                .invokeAsync()
+                .thenApply(playerState -> new GetPlayerResponse(playerState.id(), playerState.name())));
     }
 
+    /**
+     * The finished games of the player, most recent first, a page at a time. The optional {@code pageSize} query
+     * parameter is the number of games in a page, and the {@code pageToken} query parameter is the
+     * {@code nextPageToken} of the previous page, which is empty after the last page.
+     */
+    @Get("/player/{playerId}/games")
+    public CompletionStage<PlayerGamesResponse> getPlayerGames(String playerId) {
+        return metrics.record("GET /game/player/{playerId}/games", () -> {
+            var queryParams = requestContext().queryParams();
+            int pageSize = queryParams.getInteger("pageSize").orElse(defaultMatchHistoryPageSize);
+            if (pageSize < 1 || pageSize > maxMatchHistoryPageSize) {
+                throw HttpException.badRequest("pageSize must be between 1 and " + maxMatchHistoryPageSize);
+            }
+            String pageToken = queryParams.getString("pageToken").orElse("");
+            return componentClient.forView()
+                .method(PlayerMatchHistoryView::getMatches)
+                .invokeAsync(new PlayerMatchHistoryView.MatchesRequest(playerId, pageToken, pageSize))
+                .thenApply(page -> new PlayerGamesResponse(
+                    page.matches().stream()
+                        .map(match -> new PlayerGame(
+                            match.gameId(),
+                            playerId.equals(match.winnerId()) ? match.loserId() : match.winnerId(),
+                            playerId.equals(match.winnerId()),
+                            match.endedAt()))
+                        .toList(),
+                    page.hasMore() ? Optional.of(page.nextPageToken()) : Optional.empty()));
+        });
+    }
+
+    /**
+     * Joins the lobby, and creates or starts the game of the lobby before replying, so the game exists as soon as the
+     * players have its id. {@code LobbyConsumer} does the same from the lobby state changes, in case the endpoint
+     * fails after the lobby was updated, which is fine since both game commands are idempotent.
+     */
     @Post("/lobby/{lobbyId}/join")
     public CompletionStage<JoinLobbyResponse> joinLobby(String lobbyId, JoinLobbyRequest request) {
-        return componentClient.forKeyValueEntity(lobbyId)
+        return metrics.record("POST /game/lobby/{lobbyId}/join", () -> {
+            String shardId = lobbyShards.nextShard(lobbyId);
+            return joinLobbyShard(shardId, request.playerId())
+                .thenCompose(lobbyState -> lobbyState.isWaiting(request.playerId()) && lobbyShards.shards() > 1 ?
+                    pairAcrossShards(lobbyId, shardId, request.playerId(), lobbyState) :
+                    CompletableFuture.completedFuture(lobbyState))
+                .thenCompose(lobbyState -> ensureGame(lobbyState)
+                    .thenApply(__ -> new JoinLobbyResponse(
+                        lobbyState.player1Id(), lobbyState.player2Id(), lobbyState.gameId())));
+        });
+    }
+
+    /**
+     * Moves a player that was left waiting in one shard to a lower shard where another player is waiting, so that
+     * players waiting in different shards are still paired. Only the lower shards given by
+     * {@link LobbyShards#lowerShards} are read, and the player moves to the lowest of them with a waiting player.
+     * Players that miss each other are paired by later joins, which go to every shard in turn. Players only move down,
+     * so two waiting players never swap shards. A player that is already waiting in one of those shards, after joining
+     * again, is taken out of this shard instead, so a player doesn't wait in two of them. The player stays if it was
+     * paired in the meantime.
+     */
+    private CompletionStage<LobbyState> pairAcrossShards(
+        String lobbyId, String shardId, String playerId, LobbyState joined) {
+        List<String> lowerShardIds = lobbyShards.lowerShards(lobbyId, shardId);
+        if (lowerShardIds.isEmpty()) {
+            return CompletableFuture.completedFuture(joined);
+        }
+        List<CompletableFuture<LobbyState>> lobbies = lowerShardIds.stream()
+            .map(id -> componentClient.forKeyValueEntity(id)
+                .method(LobbyEntity::getLobby)
+                .invokeAsync()
+                .toCompletableFuture())
+            .toList();
+
+        return CompletableFuture.allOf(lobbies.toArray(CompletableFuture[]::new)).thenCompose(all -> {
+            for (int shard = 0; shard < lowerShardIds.size(); shard++) {
+                LobbyState lobby = lobbies.get(shard).join();
+                if (lobby.isWaiting(playerId)) {
+                    String waitingShardId = lowerShardIds.get(shard);
+                    return leaveLobbyShard(shardId, playerId).thenCompose(left -> left ?
+                        CompletableFuture.completedFuture(lobby) :
+                        leaveLobbyShard(waitingShardId, playerId).thenApply(done -> joined));
+                }
+            }
+            for (int shard = 0; shard < lowerShardIds.size(); shard++) {
+                if (lobbies.get(shard).join().hasWaitingPlayer()) {
+                    String targetShardId = lowerShardIds.get(shard);
+                    return leaveLobbyShard(shardId, playerId).thenCompose(left -> left ?
+                        joinLobbyShard(targetShardId, playerId) :
+                        CompletableFuture.completedFuture(joined));
+                }
+            }
+            return CompletableFuture.completedFuture(joined);
+        });
+    }
+
+    private CompletionStage<LobbyState> joinLobbyShard(String shardId, String playerId) {
+        return componentClient.forKeyValueEntity(shardId)
             .method(LobbyEntity::joinLobby)
-            .invokeAsync(request.playerId())
-            .thenApply(lobbyState -> new JoinLobbyResponse(lobbyState.player1Id(), lobbyState.player2Id(), lobbyState.gameId()));
+            .invokeAsync(playerId);
+    }
+
+    /**
+     * Takes the player out of the shard if it's still waiting there, and cancels the game that was created for the
+     * player in that shard, so it isn't left behind. Completes with whether the player left.
+     */
+    private CompletionStage<Boolean> leaveLobbyShard(String shardId, String playerId) {
+        return componentClient.forKeyValueEntity(shardId)
+            .method(LobbyEntity::leaveLobby)
+            .invokeAsync(playerId)
+            .thenCompose(gameId -> gameId.isEmpty() ?
+                CompletableFuture.completedFuture(false) :
+                componentClient.forEventSourcedEntity(gameId.get())
+                    .method(GameEntity::cancelGame)
+                    .invokeAsync(new GameEntity.CancelGameRequest(playerId))
+                    .thenApply(done -> true));
+    }
+
+    private CompletionStage<Done> ensureGame(LobbyState lobbyState) {
+        var game = componentClient.forEventSourcedEntity(lobbyState.gameId());
+        if (lobbyState.player2Id().isPresent()) {
+            return game.method(GameEntity::startGame)
+                .invokeAsync(new GameEntity.PlayerIds(lobbyState.player1Id().orElseThrow(), lobbyState.player2Id().get()));
+        } else {
+            return game.method(GameEntity::createGame)
+                .invokeAsync(new GameEntity.CreateGameRequest(lobbyState.player1Id().orElseThrow()));
+        }
     }
 
+    /**
+     * Puts the player in the matchmaking queue, to be matched with a player of similar rating. The game of the player
+     * is given by {@code GET /game/matchmaking/{queueId}/player/{playerId}} once the player has been matched.
+     */
+    @Post("/matchmaking/{queueId}/join")
+    public CompletionStage<MatchmakingQueueEntity.MatchStatus> joinQueue(String queueId, JoinQueueRequest request) {
+        return metrics.record("POST /game/matchmaking/{queueId}/join", () ->
+            componentClient.forKeyValueEntity(request.playerId())
+                .method(PlayerEntity::getPlayer)
+                .invokeAsync()
+                .thenCompose(player -> componentClient.forKeyValueEntity(queueId)
+                    .method(MatchmakingQueueEntity::join)
+                    .invokeAsync(new MatchmakingQueueEntity.JoinRequest(player.id(), player.rating()))));
+    }
+
+    /**
+     * Whether the player is still waiting in the queue, and else the game of the latest match of the player.
+     */
+    @Get("/matchmaking/{queueId}/player/{playerId}")
+    public CompletionStage<MatchmakingQueueEntity.MatchStatus> getMatch(String queueId, String playerId) {
+        return metrics.record("GET /game/matchmaking/{queueId}/player/{playerId}", () ->
+            componentClient.forKeyValueEntity(queueId)
+                .method(MatchmakingQueueEntity::getMatch)
+                .invokeAsync(playerId)
+                .thenCompose(status -> status.waiting() ?
+                    CompletableFuture.completedStage(status) :
+                    componentClient.forKeyValueEntity(PlayerMatchEntity.entityId(queueId, playerId))
+                        .method(PlayerMatchEntity::getGameId)
+                        .invokeAsync()
+                        .thenApply(gameId -> new MatchmakingQueueEntity.MatchStatus(false, gameId))));
+    }
+
+    @Get("/matchmaking/{queueId}/stats")
+    public CompletionStage<MatchmakingQueue.Stats> getQueueStats(String queueId) {
+        return metrics.record("GET /game/matchmaking/{queueId}/stats", () ->
+            componentClient.forKeyValueEntity(queueId)
+                .method(MatchmakingQueueEntity::getStats)
+                .invokeAsync());
+    }
+
+    /**
+     * The state of the game, with an {@code ETag} of its version. A request with the tag of the current version in
+     * {@code If-None-Match} gets {@code 304 Not Modified}, without the game being serialized. A game that is over
+     * doesn't change anymore, so its state is cacheable as immutable, and it's served from the {@link GameHistoryView}
+     * without activating its entity.
+     * <p>
+     * With {@code ?sinceRound=N} only the moves of round N and later are returned, so that polling a long game costs
+     * the same for every poll.
+     */
     @Get("/{gameId}")
-    public CompletionStage<GetGameStateResponse> getGameState(String gameId) {
-        return componentClient.forEventSourcedEntity(gameId)
-            .method(GameEntity::getState)
-            .invokeAsync()
-            .thenApply(game -> {
-                Optional<String> winnerId = switch (game.evaluateWinner()) {
-                    case PLAYER_ONE_WINS -> Optional.of(game.firstPlayerId());
-                    case PLAYER_TWO_WINS -> game.secondPlayerId();
-                    default -> Optional.empty();
-                };
-                int completedRounds = Math.min(game.getFirstPlayerMoves().size(), game.getSecondPlayerMoves().size());
-                List<String> firstPlayerMoves = game.getFirstPlayerMoves().stream()
-                    .limit(completedRounds)
-                    .map(Move::name)
-                    .toList();
-                List<String> secondPlayerMoves = game.getSecondPlayerMoves().stream()
-                    .limit(completedRounds)
-                    .map(Move::name)
-                    .toList();
-                return new GetGameStateResponse(
-                    game.firstPlayerId(),
-                    game.secondPlayerId(),
-                    firstPlayerMoves,
-                    secondPlayerMoves,
-                    game.getFirstPlayerScore(),
-                    game.getSecondPlayerScore(),
-                    completedRounds,
-                    game.getFirstPlayerMoves().size(),
-                    game.getSecondPlayerMoves().size(),
-                    winnerId
-                );
-            });
+    public CompletionStage<HttpResponse> getGameState(String gameId) {
+        long knownSequenceNumber = requestContext().requestHeader("If-None-Match")
+            .map(header -> EntityTags.sequenceNumber(header.value()).orElse(-1))
+            .orElse(-1L);
+        return metrics.record("GET /game/{gameId}", () -> {
+            int sinceRound = sinceRound();
+            return gameStateVersion(gameId, knownSequenceNumber)
+                .thenApply(version -> version.game()
+                    .map(game -> HttpResponses.ok(toGameStateResponse(game, sinceRound)))
+                    .orElseGet(() -> HttpResponse.create().withStatus(StatusCodes.NOT_MODIFIED))
+                    .addHeader(RawHeader.create("ETag", EntityTags.of(version.sequenceNumber())))
+                    .addHeader(RawHeader.create("Cache-Control",
+                        version.gameOver() ? EntityTags.IMMUTABLE : EntityTags.REVALIDATE)));
+        });
     }
 
+    /**
+     * A finished game from the {@link GameHistoryView}, or else the game from its entity, which is also where a game
+     * that has just finished is read from until the view has its last events.
+     */
+    private CompletionStage<GameEntity.GameStateVersion> gameStateVersion(String gameId, long knownSequenceNumber) {
+        return componentClient.forView()
+            .method(GameHistoryView::getGame)
+            .invokeAsync(gameId)
+            .thenCompose(history -> history.games().stream()
+                .filter(GameHistoryView.GameRecord::finished)
+                .findFirst()
+                .map(game -> CompletableFuture.completedStage(new GameEntity.GameStateVersion(
+                    game.sequenceNumber(),
+                    true,
+                    game.sequenceNumber() == knownSequenceNumber ? Optional.empty() : Optional.of(game.toGame()))))
+                .orElseGet(() -> componentClient.forEventSourcedEntity(gameId)
+                    .method(GameEntity::getStateIfChanged)
+                    .invokeAsync(knownSequenceNumber)));
+    }
+
+    /**
+     * Server-Sent Events stream of the game state, with a new event each time the game has changed.
+     */
+    @Get("/{gameId}/stream")
+    public HttpResponse streamGameState(String gameId) {
+        var states = componentClient.forView()
+            .stream(GameStateView::streamGameState)
+            .source(gameId)
+            .map(state -> toGameStateResponse(
+                state.firstPlayerId(),
+                Optional.ofNullable(state.secondPlayerId()),
+                state.firstPlayerMoveNames(),
+                state.secondPlayerMoveNames(),
+                state.firstPlayerScore(),
+                state.secondPlayerScore(),
+                Optional.ofNullable(state.winnerId())
+            ));
+        return HttpResponses.serverSentEvents(states);
+    }
+
+    /**
+     * The state of the game with the moves of the rounds from {@code sinceRound} on, and the scores and the winner of
+     * the whole game.
+     */
+    private static GetGameStateResponse toGameStateResponse(Game game, int sinceRound) {
+        Optional<String> winnerId = switch (game.evaluateWinner()) {
+            case PLAYER_ONE_WINS -> Optional.of(game.firstPlayerId());
+            case PLAYER_TWO_WINS -> game.secondPlayerId();
+            default -> Optional.empty();
+        };
+        int completedRounds = game.completedRounds();
+        int fromRound = Math.min(sinceRound, completedRounds);
+        return new GetGameStateResponse(
+            game.firstPlayerId(),
+            game.secondPlayerId(),
+            game.getFirstPlayerMoves().subList(fromRound, completedRounds).stream().map(Move::name).toList(),
+            game.getSecondPlayerMoves().subList(fromRound, completedRounds).stream().map(Move::name).toList(),
+            game.getFirstPlayerScore(),
+            game.getSecondPlayerScore(),
+            completedRounds,
+            game.getFirstPlayerMoves().size(),
+            game.getSecondPlayerMoves().size(),
+            winnerId
+        );
+    }
+
+    /**
+     * The optional {@code sinceRound} query parameter, the first round of which the moves are returned, so that a
+     * client that already has the earlier rounds only gets the new ones.
+     */
+    private int sinceRound() {
+        int sinceRound = requestContext().queryParams().getInteger("sinceRound").orElse(0);
+        if (sinceRound < 0) {
+            throw HttpException.badRequest("sinceRound must not be negative");
+        }
+        return sinceRound;
+    }
+
+    private static GetGameStateResponse toGameStateResponse(
+        String firstPlayerId,
+        Optional<String> secondPlayerId,
+        List<String> firstPlayerMoves,
+        List<String> secondPlayerMoves,
+        int firstPlayerScore,
+        int secondPlayerScore,
+        Optional<String> winnerId
+    ) {
+        int completedRounds = Math.min(firstPlayerMoves.size(), secondPlayerMoves.size());
+        return new GetGameStateResponse(
+            firstPlayerId,
+            secondPlayerId,
+            firstPlayerMoves.subList(0, completedRounds),
+            secondPlayerMoves.subList(0, completedRounds),
+            firstPlayerScore,
+            secondPlayerScore,
+            completedRounds,
+            firstPlayerMoves.size(),
+            secondPlayerMoves.size(),
+            winnerId
+        );
+    }
+
+    /**
+     * Makes a move and replies with the game state after the move, in the same shape as {@code GET /game/{gameId}},
+     * also with the optional {@code sinceRound} query parameter.
+     */
     @Post("/{gameId}/move")
-    public CompletionStage<HttpResponse> makeMove(String gameId, MakeMoveRequest request) {
-        return componentClient.forEventSourcedEntity(gameId)
-            .method(GameEntity::makeMove)
-            .invokeAsync(new GameEntity.MoveRequest(request.playerId(), Move.valueOf(request.move())))
-            .thenApply(__ -> HttpResponses.ok());
+    public CompletionStage<GetGameStateResponse> makeMove(String gameId, MakeMoveRequest request) {
+        return metrics.record("POST /game/{gameId}/move", () -> {
+            int sinceRound = sinceRound();
+            return componentClient.forEventSourcedEntity(gameId)
+                .method(GameEntity::makeMove)
+                .invokeAsync(new GameEntity.MoveRequest(request.playerId(), Move.valueOf(request.move())))
+                .thenApply(game -> toGameStateResponse(game, sinceRound));
+        });
     }
 
+    /**
+     * Makes a sequence of moves in each of the given games, with one command and one write per game. The moves of a
+     * game are all made, or none of them if any is invalid, and the result of each game tells which games failed.
+     */
+    @Post("/moves")
+    public CompletionStage<MakeMovesResponse> makeMoves(MakeMovesRequest request) {
+        return metrics.record("POST /game/moves", () -> {
+            if (request.games() == null) {
+                throw HttpException.badRequest("games is required");
+            }
+            for (GameMoves gameMoves : request.games()) {
+                if (gameMoves == null || gameMoves.gameId() == null || gameMoves.moves() == null ||
+                    gameMoves.moves().stream().anyMatch(move -> move == null || move.move() == null)) {
+                    throw HttpException.badRequest("Every game needs a gameId and moves");
+                }
+            }
+            List<CompletableFuture<GameMovesResult>> results = request.games().stream()
+                .map(this::makeGameMoves)
+                .toList();
+            return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .thenApply(__ -> new MakeMovesResponse(results.stream().map(CompletableFuture::join).toList()));
+        });
+    }
+
+    private CompletableFuture<GameMovesResult> makeGameMoves(GameMoves gameMoves) {
+        CompletionStage<Done> movesMade;
+        try {
+            var moves = gameMoves.moves().stream()
+                .map(move -> new GameEntity.MoveRequest(move.playerId(), Move.valueOf(move.move())))
+                .toList();
+            movesMade = componentClient.forEventSourcedEntity(gameMoves.gameId())
+                .method(GameEntity::makeMoves)
+                .invokeAsync(new GameEntity.MoveRequests(moves));
+        } catch (IllegalArgumentException e) {
+            movesMade = CompletableFuture.failedFuture(e);
+        }
+        return movesMade
+            .handle((__, error) -> new GameMovesResult(gameMoves.gameId(), Optional.ofNullable(error)
+                .map(e -> e instanceof CompletionException && e.getCause() != null ? e.getCause() : e)
+                .map(Throwable::getMessage)))
+            .toCompletableFuture();
+    }
+
+    /**
+     * Top players, served from the per node {@link LeaderboardCache}. The number of players is given by the optional
+     * {@code maxResults} query parameter.
+     */
     @Get("/leaderboard")
     public CompletionStage<LeaderboardView.Leaderboard> getLeaderboard() {
-        return componentClient.forView()
-            .method(LeaderboardView::getTopPlayers)
-            .invokeAsync(10);  // Hardcoded to always return top 10 players, could be a query parameter later
+        return metrics.record("GET /game/leaderboard", () -> {
+            int maxResults = requestContext().queryParams().getInteger("maxResults").orElse(defaultLeaderboardSize);
+            if (maxResults < 1 || maxResults > maxLeaderboardSize) {
+                throw HttpException.badRequest("maxResults must be between 1 and " + maxLeaderboardSize);
+            }
+            return leaderboardCache.getTopPlayers(maxResults);
+        });
+    }
+
+    @Get("/leaderboard/cache-stats")
+    public LeaderboardCache.Stats getLeaderboardCacheStats() {
+        return leaderboardCache.stats();
+    }
+
+    /**
+     * Server-Sent Events stream of the top players, with a new event each time they have changed.
+     */
+    @Get("/leaderboard/stream")
+    public HttpResponse streamLeaderboard() {
+        return HttpResponses.serverSentEvents(leaderboardStream.topPlayers());
     }
 
     @Get("/leaderboard/player/{playerId}")
     public CompletionStage<LeaderboardView.PlayerStats> getPlayerStats(String playerId) {
-        return componentClient.forView()
-            .method(LeaderboardView::getPlayerStats)
-            .invokeAsync(playerId);
+        return metrics.record("GET /game/leaderboard/player/{playerId}", () ->
+            componentClient.forView()
+                .method(LeaderboardView::getPlayerStats)
+                .invokeAsync(playerId));
     }
 }
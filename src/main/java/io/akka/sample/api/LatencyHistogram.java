@@ -0,0 +1,83 @@
+package io.akka.sample.api;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies in microseconds, in buckets that are at most 1/32 (about 3%) wide relative to their value, so that
+ * recording is a couple of atomic increments and the memory doesn't depend on the number of samples.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+  private final LongAdder sum = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  public void record(long micros) {
+    long value = Math.max(0, micros);
+    counts.incrementAndGet(bucket(value));
+    sum.add(value);
+  }
+
+  public void recordError() {
+    errors.increment();
+  }
+
+  public long errors() {
+    return errors.sum();
+  }
+
+  /**
+   * Sum of all recorded latencies, in microseconds.
+   */
+  public long sum() {
+    return sum.sum();
+  }
+
+  public long count() {
+    long count = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the latency at the given quantile, as the upper bound of its bucket, or 0 when there are no samples.
+   */
+  public long quantile(double quantile) {
+    long count = count();
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return upperBound(i);
+      }
+    }
+    return upperBound(counts.length() - 1);
+  }
+
+  private static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+    int subBucket = (int) (value >>> magnitude) - SUB_BUCKETS / 2;
+    return magnitude * SUB_BUCKETS / 2 + SUB_BUCKETS / 2 + subBucket;
+  }
+
+  private static long upperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int magnitude = (bucket - SUB_BUCKETS / 2) / (SUB_BUCKETS / 2);
+    int subBucket = (bucket - SUB_BUCKETS / 2) % (SUB_BUCKETS / 2) + SUB_BUCKETS / 2;
+    return (((long) subBucket + 1) << magnitude) - 1;
+  }
+}
@@ -0,0 +1,88 @@
+package io.akka.sample.api;
+
+import io.akka.sample.application.LeaderboardView.Leaderboard;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches the top players per {@code maxResults} for a short time, shared by all requests on a node.
+ * <p>
+ * Concurrent requests that miss the cache share the same query, so there is at most one query in flight per
+ * {@code maxResults}. The time to live starts when the query completes, and failed queries are not cached. A query
+ * that throws, or doesn't complete within the query timeout, fails the requests waiting for it, and the next request
+ * starts a new query.
+ */
+public final class LeaderboardCache {
+
+  public record Stats(long hits, long misses, int cachedEntries) {}
+
+  private static final class Entry {
+    final CompletableFuture<Leaderboard> result = new CompletableFuture<>();
+    volatile long completedAtNanos;
+
+    boolean isFresh(long nowNanos, long ttlNanos) {
+      return !result.isDone() || nowNanos - completedAtNanos < ttlNanos;
+    }
+  }
+
+  private final Function<Integer, CompletionStage<Leaderboard>> query;
+  private final long ttlNanos;
+  private final long queryTimeoutNanos;
+  private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public LeaderboardCache(
+      Function<Integer, CompletionStage<Leaderboard>> query, Duration ttl, Duration queryTimeout) {
+    this.query = query;
+    this.ttlNanos = ttl.toNanos();
+    this.queryTimeoutNanos = queryTimeout.toNanos();
+  }
+
+  public CompletionStage<Leaderboard> getTopPlayers(int maxResults) {
+    long now = System.nanoTime();
+    Entry cached = entries.get(maxResults);
+    if (cached != null && cached.isFresh(now, ttlNanos)) {
+      hits.increment();
+      return cached.result;
+    }
+
+    Entry created = new Entry();
+    Entry entry = entries.compute(maxResults, (key, existing) ->
+        existing != null && existing.isFresh(now, ttlNanos) ? existing : created);
+    if (entry != created) {
+      // another request started the query in the meantime
+      hits.increment();
+      return entry.result;
+    }
+
+    misses.increment();
+    CompletableFuture<Leaderboard> inFlight;
+    try {
+      // a copy, so that the timeout doesn't complete the future of the query itself
+      inFlight = query.apply(maxResults).toCompletableFuture().copy();
+    } catch (RuntimeException e) {
+      inFlight = CompletableFuture.failedFuture(e);
+    }
+    inFlight.orTimeout(queryTimeoutNanos, TimeUnit.NANOSECONDS).whenComplete((leaderboard, error) -> {
+      if (error != null) {
+        entries.remove(maxResults, created);
+        created.result.completeExceptionally(error);
+      } else {
+        created.completedAtNanos = System.nanoTime();
+        created.result.complete(leaderboard);
+      }
+    });
+    return created.result;
+  }
+
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), entries.size());
+  }
+}
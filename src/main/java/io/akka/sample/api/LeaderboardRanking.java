@@ -0,0 +1,83 @@
+package io.akka.sample.api;
+
+import io.akka.sample.application.LeaderboardView.Leaderboard;
+import io.akka.sample.application.LeaderboardView.PlayerStats;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Top players from the stats of all players, in any order, that only keeps the best {@code size + margin} players
+ * instead of all of them.
+ * <p>
+ * A player that drops out of the kept players is forgotten, so the top players are only known for sure as long as
+ * they rank above the best player that was dropped. Scores can go down, and when more than {@code margin} kept players
+ * fall below a dropped player that isn't the case anymore, and {@link #update} throws {@link IllegalStateException}.
+ * The ranking must then be built again from the stats of all players.
+ * <p>
+ * Not thread safe.
+ */
+final class LeaderboardRanking {
+
+  static final Comparator<PlayerStats> RANKING =
+      Comparator.comparingDouble(PlayerStats::score).reversed().thenComparing(PlayerStats::playerId);
+
+  private final int size;
+  private final int capacity;
+  private final Map<String, PlayerStats> players = new HashMap<>();
+  private final TreeSet<PlayerStats> ranked = new TreeSet<>(RANKING);
+  private PlayerStats bestDropped;
+  private List<PlayerStats> top = List.of();
+
+  LeaderboardRanking(int size, int margin) {
+    this.size = size;
+    this.capacity = size + margin;
+  }
+
+  /**
+   * Returns the new top players if they were changed by the update.
+   */
+  Optional<Leaderboard> update(PlayerStats stats) {
+    PlayerStats previous = players.remove(stats.playerId());
+    if (previous != null) {
+      ranked.remove(previous);
+    }
+
+    if (ranked.size() < capacity || RANKING.compare(stats, ranked.last()) < 0) {
+      players.put(stats.playerId(), stats);
+      ranked.add(stats);
+      if (ranked.size() > capacity) {
+        PlayerStats dropped = ranked.pollLast();
+        players.remove(dropped.playerId());
+        drop(dropped);
+      }
+    } else {
+      drop(stats);
+    }
+
+    List<PlayerStats> newTop = ranked.stream().limit(size).toList();
+    if (bestDropped != null && (newTop.size() < size || RANKING.compare(newTop.getLast(), bestDropped) > 0)) {
+      throw new IllegalStateException("Top players are no longer known, player '" + bestDropped.playerId()
+          + "' that was dropped from the ranking may rank higher");
+    }
+    if (newTop.equals(top)) {
+      return Optional.empty();
+    }
+    top = newTop;
+    return Optional.of(new Leaderboard(newTop));
+  }
+
+  int players() {
+    return ranked.size();
+  }
+
+  private void drop(PlayerStats stats) {
+    if (bestDropped == null || RANKING.compare(stats, bestDropped) < 0) {
+      bestDropped = stats;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package io.akka.sample.api;
+
+import akka.NotUsed;
+import akka.japi.Pair;
+import akka.javasdk.client.ComponentClient;
+import akka.stream.Materializer;
+import akka.stream.OverflowStrategy;
+import akka.stream.RestartSettings;
+import akka.stream.javadsl.RestartSource;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.stream.javadsl.SourceQueueWithComplete;
+import io.akka.sample.application.LeaderboardView;
+import io.akka.sample.application.LeaderboardView.Leaderboard;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Top players kept up to date from one streaming query on the {@link LeaderboardView} per node, shared by all
+ * subscribers. A new leaderboard is only emitted when the top players, or their stats, have changed, so the number
+ * of connected clients doesn't add any view queries.
+ * <p>
+ * Only the top players and a margin are kept, see {@link LeaderboardRanking}, and the query is started again when
+ * that isn't enough to know the top players. Each subscriber only buffers the latest leaderboard, so a slow client
+ * skips leaderboards instead of holding back the others. The query is started on the first subscription.
+ */
+public final class LeaderboardStream {
+
+  private final ComponentClient componentClient;
+  private final Materializer materializer;
+  private final int maxResults;
+  private final int margin;
+  private final Set<SourceQueueWithComplete<Leaderboard>> subscribers = new HashSet<>();
+  private Leaderboard latest;
+  private boolean started;
+
+  public LeaderboardStream(ComponentClient componentClient, Materializer materializer, int maxResults, int margin) {
+    this.componentClient = componentClient;
+    this.materializer = materializer;
+    this.maxResults = maxResults;
+    this.margin = margin;
+  }
+
+  public int maxResults() {
+    return maxResults;
+  }
+
+  /**
+   * The current top players, if known, followed by each change to them.
+   */
+  public Source<Leaderboard, NotUsed> topPlayers() {
+    return Source.<Leaderboard>queue(1, OverflowStrategy.dropHead())
+        .watchTermination((subscriber, done) -> {
+          subscribe(subscriber);
+          done.whenComplete((result, error) -> unsubscribe(subscriber));
+          return NotUsed.getInstance();
+        });
+  }
+
+  /**
+   * Adds the subscriber and sends it the latest leaderboard at once, so that it can't miss a leaderboard that is
+   * published in between.
+   */
+  private synchronized void subscribe(SourceQueueWithComplete<Leaderboard> subscriber) {
+    if (!started) {
+      start();
+      started = true;
+    }
+    subscribers.add(subscriber);
+    if (latest != null) {
+      subscriber.offer(latest);
+    }
+  }
+
+  private synchronized void unsubscribe(SourceQueueWithComplete<Leaderboard> subscriber) {
+    subscribers.remove(subscriber);
+  }
+
+  private synchronized void publish(Leaderboard leaderboard) {
+    latest = leaderboard;
+    subscribers.forEach(subscriber -> subscriber.offer(leaderboard));
+  }
+
+  private void start() {
+    RestartSource.withBackoff(
+            RestartSettings.create(Duration.ofSeconds(1), Duration.ofSeconds(30), 0.2),
+            () -> componentClient.forView()
+                .stream(LeaderboardView::streamPlayerStats)
+                .source()
+                .statefulMap(
+                    () -> new LeaderboardRanking(maxResults, margin),
+                    (ranking, stats) -> Pair.create(ranking, ranking.update(stats)),
+                    ranking -> Optional.empty())
+                .filter(Optional::isPresent)
+                .map(Optional::get))
+        .runWith(Sink.foreach(this::publish), materializer);
+  }
+}
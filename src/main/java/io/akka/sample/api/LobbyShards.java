@@ -0,0 +1,81 @@
+package io.akka.sample.api;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Spreads the joins of a logical lobby over a number of {@code LobbyEntity} shards, so that joins aren't serialized
+ * through a single entity.
+ * <p>
+ * A lobby entity pairs two consecutive joins, so the joins of a lobby on a node are assigned to its shards two at a
+ * time in turn: the first and second join go to shard 0, the third and fourth to shard 1 and so on. Each lobby has
+ * its own turn, so joins to other lobbies don't break up the pairs. Joins arriving close together on the same node
+ * are paired right away. A join that is left waiting is moved to a lower shard with a waiting player by the endpoint,
+ * so players waiting in different shards, after joins on different nodes, are still paired. Only {@link #PROBES} lower
+ * shards picked at random are looked at for a waiting player, so a join reads a fixed number of shards however many
+ * there are. With one shard the lobby entity id is the lobby id, as without sharding.
+ */
+public final class LobbyShards {
+
+  static final int PROBES = 2;
+
+  private final int shards;
+  private final ConcurrentHashMap<String, AtomicLong> joins = new ConcurrentHashMap<>();
+
+  public LobbyShards(int shards) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("Number of lobby shards must be at least 1, was " + shards);
+    }
+    this.shards = shards;
+  }
+
+  public int shards() {
+    return shards;
+  }
+
+  /**
+   * The id of the lobby entity that the next join to the lobby should go to.
+   */
+  public String nextShard(String lobbyId) {
+    if (shards == 1) {
+      return lobbyId;
+    }
+    long join = joins.computeIfAbsent(lobbyId, id -> new AtomicLong()).getAndIncrement();
+    return shardId(lobbyId, (int) ((join / 2) % shards));
+  }
+
+  /**
+   * The ids of all lobby entities of the lobby, in shard order.
+   */
+  public List<String> shardIds(String lobbyId) {
+    if (shards == 1) {
+      return List.of(lobbyId);
+    }
+    return IntStream.range(0, shards).mapToObj(shard -> shardId(lobbyId, shard)).toList();
+  }
+
+  /**
+   * Up to {@link #PROBES} of the shards of the lobby below the given shard, picked at random, in shard order.
+   */
+  public List<String> lowerShards(String lobbyId, String shardId) {
+    List<String> shardIds = shardIds(lobbyId);
+    int below = Math.max(0, shardIds.indexOf(shardId));
+    if (below <= PROBES) {
+      return shardIds.subList(0, below);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(below);
+    int second = random.nextInt(below - 1);
+    if (second >= first) {
+      second++;
+    }
+    return List.of(shardIds.get(Math.min(first, second)), shardIds.get(Math.max(first, second)));
+  }
+
+  static String shardId(String lobbyId, int shard) {
+    return lobbyId + "-shard-" + shard;
+  }
+}
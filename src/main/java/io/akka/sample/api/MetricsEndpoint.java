@@ -0,0 +1,50 @@
+package io.akka.sample.api;
+
+import akka.http.javadsl.model.HttpResponse;
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.http.HttpResponses;
+import io.akka.sample.application.MatchmakingMetrics;
+
+/**
+ * Metrics of this node in the Prometheus text format: the latency and errors of each route of {@link GameEndpoint},
+ * the hits and misses of the {@link LeaderboardCache}, and how long matched players waited, see
+ * {@link MatchmakingMetrics}.
+ */
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
+@HttpEndpoint("/metrics")
+public class MetricsEndpoint {
+
+  private final EndpointMetrics endpointMetrics;
+  private final LeaderboardCache leaderboardCache;
+  private final MatchmakingMetrics matchmakingMetrics;
+
+  public MetricsEndpoint(EndpointMetrics endpointMetrics, LeaderboardCache leaderboardCache,
+                         MatchmakingMetrics matchmakingMetrics) {
+    this.endpointMetrics = endpointMetrics;
+    this.leaderboardCache = leaderboardCache;
+    this.matchmakingMetrics = matchmakingMetrics;
+  }
+
+  @Get
+  public HttpResponse metrics() {
+    StringBuilder out = new StringBuilder();
+    endpointMetrics.writePrometheus(out);
+
+    LeaderboardCache.Stats cacheStats = leaderboardCache.stats();
+    out.append("# HELP leaderboard_cache_hits_total Top players requests served from the cache.\n");
+    out.append("# TYPE leaderboard_cache_hits_total counter\n");
+    out.append("leaderboard_cache_hits_total ").append(cacheStats.hits()).append('\n');
+    out.append("# HELP leaderboard_cache_misses_total Top players requests that queried the leaderboard view.\n");
+    out.append("# TYPE leaderboard_cache_misses_total counter\n");
+    out.append("leaderboard_cache_misses_total ").append(cacheStats.misses()).append('\n');
+    out.append("# HELP leaderboard_cache_entries Cached top players results.\n");
+    out.append("# TYPE leaderboard_cache_entries gauge\n");
+    out.append("leaderboard_cache_entries ").append(cacheStats.cachedEntries()).append('\n');
+
+    matchmakingMetrics.writePrometheus(out);
+
+    return HttpResponses.ok(out.toString());
+  }
+}
@@ -0,0 +1,95 @@
+package io.akka.sample.api;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.annotations.http.Post;
+import akka.javasdk.http.HttpException;
+import io.akka.sample.application.TournamentRunner;
+import io.akka.sample.application.TournamentRunner.TournamentProgress;
+import io.akka.sample.application.TournamentRunner.TournamentRequest;
+import io.akka.sample.domain.Tournament;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Starts tournaments between bots with the {@link TournamentRunner}, and replies right away with the progress of the
+ * tournament. The progress, and the standings when the tournament is over, are then polled with its id.
+ * <p>
+ * A tournament runs on the node that started it, and only that node knows its progress. The number of entrants and of
+ * games of a tournament are capped, so that one request can't keep a node and the player entities busy for long.
+ */
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
+@HttpEndpoint("/tournament")
+public class TournamentEndpoint {
+
+  static final int MAX_ENTRANTS = 64;
+  static final int MAX_GAMES_PER_PAIRING = 100_000;
+  static final long MAX_GAMES = 1_000_000;
+
+  private final TournamentRunner tournamentRunner;
+
+  public TournamentEndpoint(TournamentRunner tournamentRunner) {
+    this.tournamentRunner = tournamentRunner;
+  }
+
+  @Post
+  public TournamentProgress runTournament(TournamentRequest request) {
+    validate(request);
+    return tournamentRunner.start(request).orElseThrow(() ->
+        HttpException.badRequest("Tournament '" + request.tournamentId() + "' is already running"));
+  }
+
+  @Get("/{tournamentId}")
+  public TournamentProgress getTournament(String tournamentId) {
+    return tournamentRunner.progress(tournamentId).orElseThrow(HttpException::notFound);
+  }
+
+  static void validate(TournamentRequest request) {
+    if (request.tournamentId() == null || request.tournamentId().isBlank()) {
+      throw HttpException.badRequest("tournamentId is required");
+    }
+    if (request.format() == null) {
+      throw HttpException.badRequest("format must be ROUND_ROBIN or SWISS");
+    }
+    if (request.entrants() == null || request.entrants().size() < 2) {
+      throw HttpException.badRequest("A tournament needs at least 2 entrants");
+    }
+    if (request.entrants().size() > MAX_ENTRANTS) {
+      throw HttpException.badRequest("A tournament can have at most " + MAX_ENTRANTS + " entrants");
+    }
+    Set<String> playerIds = new HashSet<>();
+    for (Tournament.Entrant entrant : request.entrants()) {
+      if (entrant.playerId() == null || entrant.playerId().isBlank() || entrant.bot() == null) {
+        throw HttpException.badRequest("Every entrant needs a playerId and a bot");
+      }
+      if (!playerIds.add(entrant.playerId())) {
+        throw HttpException.badRequest("Entrant '" + entrant.playerId() + "' is entered more than once");
+      }
+    }
+    if (request.gamesPerPairing() < 1 || request.gamesPerPairing() > MAX_GAMES_PER_PAIRING) {
+      throw HttpException.badRequest("gamesPerPairing must be between 1 and " + MAX_GAMES_PER_PAIRING);
+    }
+    if (request.format() == Tournament.Format.SWISS &&
+        (request.rounds() < 1 || request.rounds() >= request.entrants().size())) {
+      throw HttpException.badRequest("rounds of a Swiss tournament must be between 1 and the number of entrants - 1");
+    }
+    if (games(request) > MAX_GAMES) {
+      throw HttpException.badRequest("A tournament can have at most " + MAX_GAMES + " games, this one would have " +
+          games(request));
+    }
+  }
+
+  /**
+   * The number of games of the tournament: every pairing of the entrants once in a round-robin tournament, and half
+   * the entrants paired in every round of a Swiss tournament.
+   */
+  static long games(TournamentRequest request) {
+    long entrants = request.entrants().size();
+    long pairings = request.format() == Tournament.Format.ROUND_ROBIN ?
+        entrants * (entrants - 1) / 2 :
+        request.rounds() * (entrants / 2);
+    return pairings * request.gamesPerPairing();
+  }
+}
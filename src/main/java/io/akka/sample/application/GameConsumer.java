@@ -1,17 +1,20 @@
 package io.akka.sample.application;
 
+import akka.Done;
 import akka.javasdk.annotations.ComponentId;
 import akka.javasdk.annotations.Consume;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.consumer.Consumer;
 import io.akka.sample.domain.GameEvent;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.akka.sample.domain.Player;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 @ComponentId("gameConsumer")
 @Consume.FromEventSourcedEntity(GameEntity.class)
 public class GameConsumer extends Consumer {
-    private static final Logger logger = LoggerFactory.getLogger(GameConsumer.class);
+    private static final Tracing tracing = Tracing.forComponent(GameConsumer.class);
     private final ComponentClient componentClient;
 
     public GameConsumer(ComponentClient componentClient) {
@@ -23,31 +26,52 @@ public class GameConsumer extends Consumer {
       case GameEvent.GameOver evt -> onGameOver(evt);
       case GameEvent.GameCreated __ -> effects().done();
       case GameEvent.GameStarted __ -> effects().done();
+      case GameEvent.GameCancelled __ -> effects().done();
       case GameEvent.MoveMade __ -> effects().done();
+      case GameEvent.CompactMoveMade __ -> effects().done();
     };
     }
 
     private Effect onGameOver(GameEvent.GameOver event) {
         String gameId = messageContext().eventSubject().get();
-        logger.info("Processing game over event for game {}, winner: {}, loser: {}", 
-            gameId, event.winnerId(), event.loserId());
-
-        // Update winner statistics
-        var winnerUpdate = componentClient.forKeyValueEntity(event.winnerId())
-            .method(PlayerEntity::gameWon)
-            .invokeAsync(gameId);
+        boolean sampled = tracing.sampled();
+        long start = System.nanoTime();
 
-        // Update loser statistics
-        var loserUpdate = componentClient.forKeyValueEntity(event.loserId())
-            .method(PlayerEntity::gameLost)
-            .invokeAsync(gameId);
+        // Both rating updates are based on the ratings before the game
+        var winner = getPlayer(event.winnerId());
+        var loser = getPlayer(event.loserId());
 
         return effects().asyncEffect(
-            winnerUpdate.thenCompose(__ -> loserUpdate)
-                .thenApply(__ -> {
-                    logger.info("Updated game statistics for game {}", gameId);
+            winner.thenCombine(loser, (winnerState, loserState) -> {
+                // Update winner and loser statistics concurrently
+                var winnerUpdate = recordGameResult(event.winnerId(),
+                    new Player.GameResult(gameId, true, loserState.rating()));
+                var loserUpdate = recordGameResult(event.loserId(),
+                    new Player.GameResult(gameId, false, winnerState.rating()));
+                return winnerUpdate.thenCombine(loserUpdate, (__, ___) -> {
+                    if (sampled) {
+                        tracing.event("Recorded game results")
+                            .addKeyValue("gameId", gameId)
+                            .addKeyValue("winnerId", event.winnerId())
+                            .addKeyValue("loserId", event.loserId())
+                            .addKeyValue("latencyMicros", Tracing.microsSince(start))
+                            .log();
+                    }
                     return effects().done();
-                })
+                });
+            }).thenCompose(update -> update)
         );
     }
+
+    private CompletionStage<Player> getPlayer(String playerId) {
+        return componentClient.forKeyValueEntity(playerId)
+            .method(PlayerEntity::getPlayer)
+            .invokeAsync();
+    }
+
+    private CompletionStage<Done> recordGameResult(String playerId, Player.GameResult result) {
+        return componentClient.forKeyValueEntity(playerId)
+            .method(PlayerEntity::recordGameResults)
+            .invokeAsync(new PlayerEntity.GameResults(List.of(result)));
+    }
 }
@@ -8,21 +8,32 @@ import io.akka.sample.domain.GameEvent;
 import io.akka.sample.domain.GameEvent.*;
 import io.akka.sample.domain.Game.Move;
 import io.akka.sample.domain.Game.Result;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import static akka.Done.done;
 
 @ComponentId("game")
 public class GameEntity extends EventSourcedEntity<Game, GameEvent> {
-    private static final Logger logger = LoggerFactory.getLogger(GameEntity.class);
+    private static final Tracing tracing = Tracing.forComponent(GameEntity.class);
 
     public record PlayerIds(String player1Id, String player2Id) {}
     public record CreateGameRequest(String player1Id) {}
+    public record CancelGameRequest(String player1Id) {}
     public record MoveRequest(String playerId, Move move) {}
+    public record MoveRequests(List<MoveRequest> moves) {}
+    /**
+     * The sequence number of the latest event of the game, whether the game is over, and the game, unless the caller
+     * already has the state at this sequence number.
+     */
+    public record GameStateVersion(long sequenceNumber, boolean gameOver, Optional<Game> game) {}
 
     public Effect<Done> createGame(CreateGameRequest request) {
+        if (isDeleted()) {
+            // cancelled before the lobby consumer got to create it
+            return effects().reply(done());
+        }
         if (currentState() != null) {
             if (currentState().firstPlayerId().equals(request.player1Id())) {
                 return effects().reply(done());
@@ -30,12 +41,47 @@ public class GameEntity extends EventSourcedEntity<Game, GameEvent> {
             return errorGameAlreadyStarted();
         }
 
-        logger.info("Creating game for player {}", request.player1Id());
+        if (tracing.sampled()) {
+            tracing.event("Creating game")
+                .addKeyValue("gameId", commandContext().entityId())
+                .addKeyValue("playerId", request.player1Id())
+                .log();
+        }
         return effects()
             .persist(new GameCreated(request.player1Id()))
             .thenReply(__ -> done());
     }
 
+    /**
+     * Ends and deletes a game that was created for a player that is no longer waiting in its lobby, so that the game
+     * isn't left behind. The game may not have been created yet, it's cancelled all the same so that it isn't created
+     * afterwards.
+     */
+    public Effect<Done> cancelGame(CancelGameRequest request) {
+        if (isDeleted()) {
+            return effects().reply(done());
+        }
+        if (currentState() != null) {
+            if (currentState().secondPlayerId().isPresent()) {
+                return errorGameAlreadyStarted();
+            }
+            if (!currentState().firstPlayerId().equals(request.player1Id())) {
+                return errorNotAPlayer(request.player1Id());
+            }
+        }
+
+        if (tracing.sampled()) {
+            tracing.event("Cancelling game")
+                .addKeyValue("gameId", commandContext().entityId())
+                .addKeyValue("playerId", request.player1Id())
+                .log();
+        }
+        return effects()
+            .persist(new GameCancelled(request.player1Id()))
+            .deleteEntity()
+            .thenReply(__ -> done());
+    }
+
     public Effect<Done> startGame(PlayerIds playerIds) {
         String player1Id = playerIds.player1Id();
         String player2Id = playerIds.player2Id();
@@ -50,7 +96,12 @@ public class GameEntity extends EventSourcedEntity<Game, GameEvent> {
                 return effects().reply(done());
             }
             if (currentState().secondPlayerId().isEmpty()) {
-                logger.info("Adding second player {} to game", player2Id);
+                if (tracing.sampled()) {
+                    tracing.event("Adding second player to game")
+                        .addKeyValue("gameId", commandContext().entityId())
+                        .addKeyValue("playerId", player2Id)
+                        .log();
+                }
                 return effects()
                     .persist(new GameStarted(player1Id, player2Id))
                     .thenReply(__ -> done());
@@ -58,14 +109,29 @@ public class GameEntity extends EventSourcedEntity<Game, GameEvent> {
             return errorGameAlreadyStarted();
         }
 
-        logger.info("Starting game between {} and {}", player1Id, player2Id);
+        if (tracing.sampled()) {
+            tracing.event("Starting game")
+                .addKeyValue("gameId", commandContext().entityId())
+                .addKeyValue("player1Id", player1Id)
+                .addKeyValue("player2Id", player2Id)
+                .log();
+        }
         return effects()
             .persist(new GameStarted(player1Id, player2Id))
             .thenReply(__ -> done());
     }
 
-    public Effect<Done> makeMove(MoveRequest moveRequest) {
-        logger.info("Making move for player {} with move {}", moveRequest.playerId(), moveRequest.move());
+    /**
+     * Makes a move, and replies with the game after the move, so that the caller doesn't have to get the state again.
+     */
+    public Effect<Game> makeMove(MoveRequest moveRequest) {
+        if (tracing.sampled()) {
+            tracing.event("Making move")
+                .addKeyValue("gameId", commandContext().entityId())
+                .addKeyValue("playerId", moveRequest.playerId())
+                .addKeyValue("move", moveRequest.move())
+                .log();
+        }
         if (currentState() == null) {
             return errorNotFound();
         }
@@ -78,32 +144,95 @@ public class GameEntity extends EventSourcedEntity<Game, GameEvent> {
         Move move = moveRequest.move();
 
         Game currentGame = currentState();
-        int nbrOfPlayer1Moves = currentGame.getFirstPlayerMoves().size();
-        int nbrOfPlayer2Moves = currentGame.getSecondPlayerMoves().size();
+        if (currentGame.evaluateWinner() != Result.IN_PROGRESS) {
+            return errorGameOver();
+        }
+
+        int playerIndex = currentGame.playerIndex(playerId);
+        if (playerIndex < 0) {
+            return errorNotAPlayer(playerId);
+        }
 
-        if ((playerId.equals(currentGame.firstPlayerId()) && nbrOfPlayer1Moves > nbrOfPlayer2Moves) ||
-            (playerId.equals(currentGame.secondPlayerId().get()) && nbrOfPlayer2Moves > nbrOfPlayer1Moves)) {
+        if (isOutOfTurn(currentGame, playerIndex)) {
             return errorInvalidMoveOrder();
         }
 
-        Game updatedGame = currentGame.addMove(playerId, move);
-        Result result = updatedGame.evaluateWinner();
+        Game updatedGame = currentGame.addMove(playerIndex, move);
 
-        if (result == Result.PLAYER_ONE_WINS || result == Result.PLAYER_TWO_WINS) {
-            String winnerId = result == Result.PLAYER_ONE_WINS ?
-                updatedGame.firstPlayerId() :
-                updatedGame.secondPlayerId().orElseThrow();
-            String loserId = result == Result.PLAYER_ONE_WINS ?
-                updatedGame.secondPlayerId().orElseThrow() :
-                updatedGame.firstPlayerId();
-            return effects().persist(new MoveMade(playerId, move), new GameOver(winnerId, loserId))
-                .thenReply(__ -> done());
+        if (updatedGame.evaluateWinner() != Result.IN_PROGRESS) {
+            return effects().persist(new CompactMoveMade(playerIndex, move), gameOver(updatedGame))
+                .thenReply(game -> game);
         } else {
-            return effects().persist(new MoveMade(playerId, move))
-                .thenReply(__ -> done());
+            return effects().persist(new CompactMoveMade(playerIndex, move))
+                .thenReply(game -> game);
         }
     }
 
+    /**
+     * Makes a sequence of moves, of one or both players, and persists all of them together. The moves are validated
+     * in order in the same way as by {@link #makeMove}, and none of them is made if any of them is invalid.
+     */
+    public Effect<Done> makeMoves(MoveRequests moveRequests) {
+        if (currentState() == null) {
+            return errorNotFound();
+        }
+
+        if (currentState().secondPlayerId().isEmpty()) {
+            return effects().error("Cannot make moves until second player joins");
+        }
+
+        Game updatedGame = currentState();
+        List<GameEvent> events = new ArrayList<>();
+        for (MoveRequest moveRequest : moveRequests.moves()) {
+            int playerIndex = updatedGame.playerIndex(moveRequest.playerId());
+            if (playerIndex < 0) {
+                return errorNotAPlayer(moveRequest.playerId());
+            }
+            if (updatedGame.evaluateWinner() != Result.IN_PROGRESS) {
+                return errorGameOver();
+            }
+            if (isOutOfTurn(updatedGame, playerIndex)) {
+                return errorInvalidMoveOrder();
+            }
+
+            updatedGame = updatedGame.addMove(playerIndex, moveRequest.move());
+            events.add(new CompactMoveMade(playerIndex, moveRequest.move()));
+            if (updatedGame.evaluateWinner() != Result.IN_PROGRESS) {
+                events.add(gameOver(updatedGame));
+            }
+        }
+
+        if (tracing.sampled()) {
+            tracing.event("Making moves")
+                .addKeyValue("gameId", commandContext().entityId())
+                .addKeyValue("moves", moveRequests.moves().size())
+                .log();
+        }
+        if (events.isEmpty()) {
+            return effects().reply(done());
+        }
+        return effects().persistAll(events)
+            .thenReply(__ -> done());
+    }
+
+    /**
+     * A player can't be more than one move ahead of the other player.
+     */
+    private static boolean isOutOfTurn(Game game, int playerIndex) {
+        int nbrOfPlayer1Moves = game.getFirstPlayerMoves().size();
+        int nbrOfPlayer2Moves = game.getSecondPlayerMoves().size();
+        return (playerIndex == 0 && nbrOfPlayer1Moves > nbrOfPlayer2Moves) ||
+            (playerIndex == 1 && nbrOfPlayer2Moves > nbrOfPlayer1Moves);
+    }
+
+    private static GameOver gameOver(Game game) {
+        String firstPlayerId = game.firstPlayerId();
+        String secondPlayerId = game.secondPlayerId().orElseThrow();
+        return game.evaluateWinner() == Result.PLAYER_ONE_WINS ?
+            new GameOver(firstPlayerId, secondPlayerId, System.currentTimeMillis()) :
+            new GameOver(secondPlayerId, firstPlayerId, System.currentTimeMillis());
+    }
+
     public ReadOnlyEffect<Game> getState() {
         if (currentState() == null) {
             return errorNotFound();
@@ -111,13 +240,34 @@ public class GameEntity extends EventSourcedEntity<Game, GameEvent> {
         return effects().reply(currentState());
     }
 
+    /**
+     * The game with the sequence number of its latest event, which endpoints use as a version of the game state. The
+     * game is left out of the reply when it's at the given sequence number, so an unchanged game isn't serialized.
+     * A game that is over doesn't change anymore.
+     */
+    public ReadOnlyEffect<GameStateVersion> getStateIfChanged(long knownSequenceNumber) {
+        if (currentState() == null) {
+            return errorNotFound();
+        }
+        long sequenceNumber = commandContext().sequenceNumber();
+        boolean gameOver = currentState().evaluateWinner() != Result.IN_PROGRESS;
+        Optional<Game> game = sequenceNumber == knownSequenceNumber ? Optional.empty() : Optional.of(currentState());
+        return effects().reply(new GameStateVersion(sequenceNumber, gameOver, game));
+    }
+
     @Override
     public Game applyEvent(GameEvent event) {
+        return applyEvent(currentState(), event);
+    }
+
+    static Game applyEvent(Game state, GameEvent event) {
         return switch (event) {
             case GameCreated evt -> new Game(evt.player1Id(), Optional.empty());
             case GameStarted evt -> new Game(evt.player1Id(), Optional.of(evt.player2Id()));
-            case MoveMade evt -> currentState().addMove(evt.playerId(), evt.move());
-            case GameOver evt -> currentState(); // No state change needed for GameOver
+            case GameCancelled evt -> state != null ? state : new Game(evt.player1Id(), Optional.empty());
+            case MoveMade evt -> state.addMove(evt.playerId(), evt.move());
+            case CompactMoveMade evt -> state.addMove(evt.playerIndex(), evt.move());
+            case GameOver evt -> state; // No state change needed for GameOver
         };
     }
 
@@ -136,6 +286,16 @@ public class GameEntity extends EventSourcedEntity<Game, GameEvent> {
             "Cannot start a game with the same player as both participants.");
     }
 
+    private <T> Effect<T> errorNotAPlayer(String playerId) {
+        return effects().error(
+            "Player '" + playerId + "' is not a player in game '" + commandContext().entityId() + "'");
+    }
+
+    private <T> Effect<T> errorGameOver() {
+        return effects().error(
+            "Game is over id '" + commandContext().entityId() + "'");
+    }
+
     private <T> Effect<T> errorInvalidMoveOrder() {
         return effects().error(
             "Invalid move order: a player cannot have more than one move more than the other player.");
@@ -0,0 +1,130 @@
+package io.akka.sample.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import io.akka.sample.domain.Game;
+import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.GameEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Final results and moves of games, materialized from the GameEntity events, so that a game that is over, and doesn't
+ * change anymore, can be read without activating its entity and replaying its events.
+ * <p>
+ * Rows are kept for games in progress as well, since the moves are only in the move events, but are only served once
+ * the game is {@link GameRecord#finished()}. The moves are stored as one character per move to keep the rows that are
+ * updated on every move small.
+ */
+@ComponentId("game_history_view")
+public class GameHistoryView extends View {
+
+  /**
+   * {@code sequenceNumber} is the sequence number of the latest event of the game in its entity. {@code secondPlayerId}
+   * and {@code winnerId} are null until the second player has joined and the game is over.
+   */
+  public record GameRecord(
+      String gameId,
+      String firstPlayerId,
+      String secondPlayerId,
+      String firstPlayerMoves,
+      String secondPlayerMoves,
+      String winnerId,
+      long sequenceNumber
+  ) {
+    public boolean finished() {
+      return winnerId != null;
+    }
+
+    /**
+     * The game, with the same state as the entity has for it.
+     */
+    public Game toGame() {
+      return new Game(firstPlayerId, Optional.ofNullable(secondPlayerId),
+          decodeMoves(firstPlayerMoves), decodeMoves(secondPlayerMoves));
+    }
+
+    GameRecord withMove(int playerIndex, Move move, long sequenceNumber) {
+      return new GameRecord(gameId, firstPlayerId, secondPlayerId,
+          playerIndex == 0 ? firstPlayerMoves + encodeMove(move) : firstPlayerMoves,
+          playerIndex == 1 ? secondPlayerMoves + encodeMove(move) : secondPlayerMoves,
+          winnerId, sequenceNumber);
+    }
+  }
+
+  public record GameRecords(List<GameRecord> games) {}
+
+  @Consume.FromEventSourcedEntity(GameEntity.class)
+  public static class GameHistoryUpdater extends TableUpdater<GameRecord> {
+    public Effect<GameRecord> onEvent(GameEvent event) {
+      String gameId = updateContext().eventSubject().orElse("");
+      GameRecord row = rowState();
+      long sequenceNumber = sequenceNumber(row);
+      return switch (event) {
+        case GameEvent.GameCreated evt -> effects().updateRow(
+            new GameRecord(gameId, evt.player1Id(), null, "", "", null, sequenceNumber));
+        case GameEvent.GameStarted evt -> effects().updateRow(row == null ?
+            new GameRecord(gameId, evt.player1Id(), evt.player2Id(), "", "", null, sequenceNumber) :
+            new GameRecord(gameId, row.firstPlayerId(), evt.player2Id(), row.firstPlayerMoves(),
+                row.secondPlayerMoves(), row.winnerId(), sequenceNumber));
+        case GameEvent.GameCancelled __ -> effects().deleteRow();
+        case GameEvent.MoveMade evt -> effects().updateRow(row.withMove(
+            evt.playerId().equals(row.firstPlayerId()) ? 0 : 1, evt.move(), sequenceNumber));
+        case GameEvent.CompactMoveMade evt ->
+            effects().updateRow(row.withMove(evt.playerIndex(), evt.move(), sequenceNumber));
+        case GameEvent.GameOver evt -> effects().updateRow(
+            new GameRecord(gameId, row.firstPlayerId(), row.secondPlayerId(), row.firstPlayerMoves(),
+                row.secondPlayerMoves(), evt.winnerId(), sequenceNumber));
+      };
+    }
+
+    /**
+     * The sequence number of the event in its entity, from the {@code ce-sequence} metadata of the event, or else one
+     * more than the events of the game so far.
+     */
+    private long sequenceNumber(GameRecord row) {
+      return updateContext().metadata().get("ce-sequence")
+          .map(Long::parseLong)
+          .orElse(row == null ? 1 : row.sequenceNumber() + 1);
+    }
+  }
+
+  /**
+   * The game with the given id, in a list that is empty when the view has no events of the game yet. Check
+   * {@link GameRecord#finished()} before serving the game instead of its entity.
+   */
+  @Query("SELECT * AS games FROM game_history_view WHERE gameId = :gameId")
+  public QueryEffect<GameRecords> getGame(String gameId) {
+    return queryResult();
+  }
+
+  static String encodeMove(Move move) {
+    return switch (move) {
+      case ROCK -> "R";
+      case PAPER -> "P";
+      case SCISSORS -> "S";
+    };
+  }
+
+  static List<Move> decodeMoves(String moves) {
+    List<Move> decoded = new ArrayList<>(moves.length());
+    for (int i = 0; i < moves.length(); i++) {
+      decoded.add(decodeMove(moves.charAt(i)));
+    }
+    return decoded;
+  }
+
+  static Move decodeMove(char move) {
+    return switch (move) {
+      case 'R' -> Move.ROCK;
+      case 'P' -> Move.PAPER;
+      case 'S' -> Move.SCISSORS;
+      default -> throw new IllegalArgumentException("Unknown move '" + move + "'");
+    };
+  }
+}
@@ -0,0 +1,112 @@
+package io.akka.sample.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.GameEvent;
+
+import java.util.List;
+
+import static io.akka.sample.application.GameHistoryView.decodeMove;
+import static io.akka.sample.application.GameHistoryView.decodeMoves;
+import static io.akka.sample.application.GameHistoryView.encodeMove;
+
+/**
+ * Game state materialized from the GameEntity events, for streaming state changes to the players.
+ */
+@ComponentId("game_state_view")
+public class GameStateView extends View {
+
+    /**
+     * {@code secondPlayerId} and {@code winnerId} are null until the second player has joined and the game is over.
+     * The moves are stored as one character per move, as in {@link GameHistoryView}, and include the move of an
+     * incomplete round.
+     */
+    public record GameState(
+        String gameId,
+        String firstPlayerId,
+        String secondPlayerId,
+        String firstPlayerMoves,
+        String secondPlayerMoves,
+        int firstPlayerScore,
+        int secondPlayerScore,
+        String winnerId
+    ) {
+        public List<String> firstPlayerMoveNames() {
+            return moveNames(firstPlayerMoves);
+        }
+
+        public List<String> secondPlayerMoveNames() {
+            return moveNames(secondPlayerMoves);
+        }
+
+        GameState withMove(String playerId, Move move) {
+            if (playerId.equals(firstPlayerId)) {
+                return withMove(0, move);
+            }
+            return playerId.equals(secondPlayerId) ? withMove(1, move) : this;
+        }
+
+        /**
+         * The state with the move of the first (0) or second (1) player added, and the scores updated when the move
+         * completes a round.
+         */
+        GameState withMove(int playerIndex, Move move) {
+            String newFirstPlayerMoves = playerIndex == 0 ? firstPlayerMoves + encodeMove(move) : firstPlayerMoves;
+            String newSecondPlayerMoves = playerIndex == 1 ? secondPlayerMoves + encodeMove(move) : secondPlayerMoves;
+
+            int newFirstPlayerScore = firstPlayerScore;
+            int newSecondPlayerScore = secondPlayerScore;
+            int round = (playerIndex == 0 ? newFirstPlayerMoves.length() : newSecondPlayerMoves.length()) - 1;
+            if (round < newFirstPlayerMoves.length() && round < newSecondPlayerMoves.length()) {
+                Move firstPlayerMove = decodeMove(newFirstPlayerMoves.charAt(round));
+                Move secondPlayerMove = decodeMove(newSecondPlayerMoves.charAt(round));
+                if (firstPlayerMove.beats(secondPlayerMove)) {
+                    newFirstPlayerScore++;
+                } else if (secondPlayerMove.beats(firstPlayerMove)) {
+                    newSecondPlayerScore++;
+                }
+            }
+
+            return new GameState(gameId, firstPlayerId, secondPlayerId, newFirstPlayerMoves, newSecondPlayerMoves,
+                newFirstPlayerScore, newSecondPlayerScore, winnerId);
+        }
+
+        private static List<String> moveNames(String moves) {
+            return decodeMoves(moves).stream().map(Move::name).toList();
+        }
+    }
+
+    @Consume.FromEventSourcedEntity(GameEntity.class)
+    public static class GameStateUpdater extends TableUpdater<GameState> {
+        public Effect<GameState> onEvent(GameEvent event) {
+            String gameId = updateContext().eventSubject().orElse("");
+            GameState state = rowState();
+            return switch (event) {
+                case GameEvent.GameCreated evt -> effects().updateRow(
+                    new GameState(gameId, evt.player1Id(), null, "", "", 0, 0, null));
+                case GameEvent.GameStarted evt -> effects().updateRow(state == null ?
+                    new GameState(gameId, evt.player1Id(), evt.player2Id(), "", "", 0, 0, null) :
+                    new GameState(gameId, state.firstPlayerId(), evt.player2Id(), state.firstPlayerMoves(),
+                        state.secondPlayerMoves(), state.firstPlayerScore(), state.secondPlayerScore(),
+                        state.winnerId()));
+                case GameEvent.GameCancelled __ -> effects().deleteRow();
+                case GameEvent.MoveMade evt -> effects().updateRow(state.withMove(evt.playerId(), evt.move()));
+                case GameEvent.CompactMoveMade evt ->
+                    effects().updateRow(state.withMove(evt.playerIndex(), evt.move()));
+                case GameEvent.GameOver evt -> effects().updateRow(
+                    new GameState(gameId, state.firstPlayerId(), state.secondPlayerId(), state.firstPlayerMoves(),
+                        state.secondPlayerMoves(), state.firstPlayerScore(), state.secondPlayerScore(),
+                        evt.winnerId()));
+            };
+        }
+    }
+
+    @Query(value = "SELECT * FROM game_state_view WHERE gameId = :gameId", streamUpdates = true)
+    public QueryStreamEffect<GameState> streamGameState(String gameId) {
+        return queryStreamResult();
+    }
+}
@@ -58,4 +58,13 @@ public class LeaderboardView extends View {
   public QueryEffect<PlayerStats> getPlayerStats(String playerId) {
     return queryResult();
   }
+
+  /**
+   * All player stats, followed by each update. Used to maintain the top players for streaming, see
+   * {@code LeaderboardStream}.
+   */
+  @Query(value = "SELECT * FROM leaderboard_view", streamUpdates = true)
+  public QueryStreamEffect<PlayerStats> streamPlayerStats() {
+    return queryStreamResult();
+  }
 }
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 public class LobbyConsumer extends Consumer {
 
   private static final Logger logger = LoggerFactory.getLogger(LobbyConsumer.class);
+  private static final Tracing tracing = Tracing.forComponent(LobbyConsumer.class);
   private final ComponentClient componentClient;
 
   public LobbyConsumer(ComponentClient componentClient) {
@@ -27,31 +28,42 @@ public class LobbyConsumer extends Consumer {
       return effects().ignore();
     }
 
+    boolean sampled = tracing.sampled();
+    long start = System.nanoTime();
     if (state.player1Id().isPresent() && state.player2Id().isEmpty()) {
-      logger.info("First player joined. Creating GameEntity with Game ID: {}", state.gameId());
       return effects().asyncEffect(
           componentClient.forEventSourcedEntity(state.gameId())
               .method(GameEntity::createGame)
               .invokeAsync(new GameEntity.CreateGameRequest(state.player1Id().get()))
               .thenApply(done -> {
-                logger.info("GameEntity created successfully for Game ID: {}", state.gameId());
+                if (sampled) {
+                  tracing.event("Game created for first player")
+                      .addKeyValue("gameId", state.gameId())
+                      .addKeyValue("playerId", state.player1Id().get())
+                      .addKeyValue("latencyMicros", Tracing.microsSince(start))
+                      .log();
+                }
                 return effects().done();
               })
       );
     } else if (state.player1Id().isPresent() && state.player2Id().isPresent()) {
-      logger.info("Second player joined. Starting game with Game ID: {}", state.gameId());
       var playerIds = new GameEntity.PlayerIds(state.player1Id().get(), state.player2Id().get());
       return effects().asyncEffect(
           componentClient.forEventSourcedEntity(state.gameId())
               .method(GameEntity::startGame)
               .invokeAsync(playerIds)
               .thenApply(done -> {
-                logger.info("Game started successfully for Game ID: {}", state.gameId());
+                if (sampled) {
+                  tracing.event("Game started for second player")
+                      .addKeyValue("gameId", state.gameId())
+                      .addKeyValue("playerId", state.player2Id().get())
+                      .addKeyValue("latencyMicros", Tracing.microsSince(start))
+                      .log();
+                }
                 return effects().done();
               })
       );
     } else {
-      logger.info("Lobby is empty. Ignoring state change.");
       return effects().ignore();
     }
   }
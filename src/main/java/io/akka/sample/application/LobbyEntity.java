@@ -13,6 +13,7 @@ import java.util.UUID;
 @ComponentId("lobby")
 public class LobbyEntity extends KeyValueEntity<LobbyState> {
     private static final Logger logger = LoggerFactory.getLogger(LobbyEntity.class);
+    private static final Tracing tracing = Tracing.forComponent(LobbyEntity.class);
 
     @Override
     public LobbyState emptyState() {
@@ -24,7 +25,6 @@ public class LobbyEntity extends KeyValueEntity<LobbyState> {
 
         LobbyState updatedState;
         if (currentState.player1Id().isEmpty()) {
-            logger.info("Player {} is joining an empty lobby.", playerId);
             updatedState = currentState.withPlayer1(playerId);
         } else if (currentState.player2Id().isEmpty()) {
             // Check if trying to join as second player when already first player
@@ -32,17 +32,38 @@ public class LobbyEntity extends KeyValueEntity<LobbyState> {
                 logger.warn("Player {} attempted to join as second player", playerId);
                 return effects().error("Cannot join as both players");
             }
-            logger.info("Player {} is joining the lobby with player {}.", playerId, currentState.player1Id().get());
             updatedState = currentState.withPlayer2(playerId);
         } else {
-            logger.info("Lobby is full. Creating a new lobby for player {}.", playerId);
             updatedState = new LobbyState(Optional.of(playerId), Optional.empty(), UUID.randomUUID().toString());
         }
+        if (tracing.sampled()) {
+            tracing.event("Player joined lobby")
+                .addKeyValue("lobbyId", commandContext().entityId())
+                .addKeyValue("playerId", playerId)
+                .addKeyValue("gameId", updatedState.gameId())
+                .addKeyValue("lobbyFull", updatedState.player2Id().isPresent())
+                .log();
+        }
         return effects()
             .updateState(updatedState)
             .thenReply(updatedState);
     }
 
+    /**
+     * Takes the player out of the lobby if the player is still waiting for a second player, and replies with the game
+     * of the lobby, which was created for the player and is to be cancelled with {@link GameEntity#cancelGame}. The
+     * lobby gets a new game id for the next player. Replies empty when the player isn't waiting in the lobby, for
+     * example because a second player joined in the meantime.
+     */
+    public Effect<Optional<String>> leaveLobby(String playerId) {
+        if (!currentState().isWaiting(playerId)) {
+            return effects().reply(Optional.empty());
+        }
+        return effects()
+            .updateState(new LobbyState(UUID.randomUUID().toString()))
+            .thenReply(Optional.of(currentState().gameId()));
+    }
+
     public ReadOnlyEffect<LobbyState> getLobby() {
         return effects().reply(currentState());
     }
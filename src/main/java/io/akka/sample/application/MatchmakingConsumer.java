@@ -0,0 +1,94 @@
+package io.akka.sample.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import io.akka.sample.domain.MatchedGame;
+import io.akka.sample.domain.MatchmakingQueue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Starts the games of the pending matches of a matchmaking queue. Each state change of the queue may have many new
+ * matches, since only the latest state is delivered when the queue changes quickly, and all of them have their games
+ * started at once. The game of each match is then recorded to the {@link PlayerMatchEntity} of both players, and the
+ * matches are removed from the queue.
+ * <p>
+ * Rating windows grow while players wait, but the queue only changes when players join or are matched. So while at
+ * least two players are left waiting, the {@link MatchmakingTimer} has the queue pair them again.
+ */
+@ComponentId("matchmakingConsumer")
+@Consume.FromKeyValueEntity(MatchmakingQueueEntity.class)
+public class MatchmakingConsumer extends Consumer {
+
+  private static final Tracing tracing = Tracing.forComponent(MatchmakingConsumer.class);
+  private static final int MAX_MATCHES_PER_BATCH = 500;
+  private final ComponentClient componentClient;
+  private final MatchmakingMetrics metrics;
+
+  public MatchmakingConsumer(ComponentClient componentClient, MatchmakingMetrics metrics) {
+    this.componentClient = componentClient;
+    this.metrics = metrics;
+  }
+
+  public Effect onStateChange(MatchmakingQueue queue) {
+    String queueId = messageContext().eventSubject().orElseThrow();
+    List<MatchmakingQueue.Match> matches = queue.pendingMatches().stream().limit(MAX_MATCHES_PER_BATCH).toList();
+    boolean playersLeft = queue.waiting().size() >= 2;
+    if (matches.isEmpty()) {
+      return playersLeft ?
+          effects().asyncEffect(MatchmakingTimer.schedule(timers(), componentClient, queueId)
+              .thenApply(done -> effects().done())) :
+          effects().ignore();
+    }
+
+    boolean sampled = tracing.sampled();
+    long start = System.nanoTime();
+    var gamesStarted = matches.stream()
+        .map(match -> componentClient.forEventSourcedEntity(match.gameId())
+            .method(GameEntity::startGame)
+            .invokeAsync(new GameEntity.PlayerIds(match.player1().playerId(), match.player2().playerId()))
+            .toCompletableFuture())
+        .toArray(CompletableFuture[]::new);
+
+    // the games are started before the matches are recorded, so a player is only told about a game that exists
+    return effects().asyncEffect(
+        CompletableFuture.allOf(gamesStarted)
+            .thenCompose(__ -> CompletableFuture.allOf(matches.stream()
+                .flatMap(match -> Stream.of(match.player1(), match.player2())
+                    .map(player -> componentClient
+                        .forKeyValueEntity(PlayerMatchEntity.entityId(queueId, player.playerId()))
+                        .method(PlayerMatchEntity::recordMatch)
+                        .invokeAsync(new MatchedGame(match.gameId(), match.matchedAtMillis()))
+                        .toCompletableFuture()))
+                .toArray(CompletableFuture[]::new)))
+            .thenCompose(__ -> componentClient.forKeyValueEntity(queueId)
+                .method(MatchmakingQueueEntity::recordMatches)
+                .invokeAsync(new MatchmakingQueueEntity.Matches(matches)))
+            .thenCompose(done -> {
+              long nowMillis = System.currentTimeMillis();
+              for (MatchmakingQueue.Match match : matches) {
+                metrics.recordMatchedPlayer(nowMillis - match.player1().joinedAtMillis());
+                metrics.recordMatchedPlayer(nowMillis - match.player2().joinedAtMillis());
+              }
+              return playersLeft ?
+                  MatchmakingTimer.schedule(timers(), componentClient, queueId) :
+                  CompletableFuture.completedFuture(done);
+            })
+            .thenApply(done -> {
+              if (sampled) {
+                tracing.event("Started games of matched players")
+                    .addKeyValue("queueId", queueId)
+                    .addKeyValue("games", matches.size())
+                    .addKeyValue("waitingPlayers", queue.waiting().size())
+                    .addKeyValue("latencyMicros", Tracing.microsSince(start))
+                    .log();
+              }
+              return effects().done();
+            })
+    );
+  }
+}
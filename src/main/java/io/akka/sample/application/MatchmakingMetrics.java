@@ -0,0 +1,32 @@
+package io.akka.sample.application;
+
+import io.akka.sample.api.LatencyHistogram;
+
+/**
+ * How long players have waited in the matchmaking queues until the game of their match was started, for the matches
+ * whose games were started on this node. Written in the Prometheus text format with the other metrics of the node.
+ */
+public final class MatchmakingMetrics {
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  private final LatencyHistogram waitTime = new LatencyHistogram();
+
+  public void recordMatchedPlayer(long waitMillis) {
+    waitTime.record(waitMillis * 1000);
+  }
+
+  /**
+   * Appends the wait times in the Prometheus text format.
+   */
+  public void writePrometheus(StringBuilder out) {
+    out.append("# HELP matchmaking_wait_seconds Time from joining a matchmaking queue until the game was started.\n");
+    out.append("# TYPE matchmaking_wait_seconds summary\n");
+    for (double quantile : QUANTILES) {
+      out.append("matchmaking_wait_seconds{quantile=\"").append(quantile).append("\"} ")
+          .append(waitTime.quantile(quantile) / 1e6).append('\n');
+    }
+    out.append("matchmaking_wait_seconds_sum ").append(waitTime.sum() / 1e6).append('\n');
+    out.append("matchmaking_wait_seconds_count ").append(waitTime.count()).append('\n');
+  }
+}
@@ -0,0 +1,87 @@
+package io.akka.sample.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import io.akka.sample.domain.MatchmakingQueue;
+
+import java.util.List;
+import java.util.Optional;
+
+import static akka.Done.done;
+
+/**
+ * Queue of players waiting for a game. Joining players are matched right away with a waiting player of similar
+ * rating, if there is one, and the {@link MatchmakingConsumer} starts the games of the matches and then records them
+ * here. The game of a matched player is then given by its {@link PlayerMatchEntity}.
+ */
+@ComponentId("matchmaking_queue")
+public class MatchmakingQueueEntity extends KeyValueEntity<MatchmakingQueue> {
+    private static final Tracing tracing = Tracing.forComponent(MatchmakingQueueEntity.class);
+
+    public record JoinRequest(String playerId, int rating) {}
+    public record MatchStatus(boolean waiting, Optional<String> gameId) {}
+    public record Matches(List<MatchmakingQueue.Match> matches) {}
+
+    @Override
+    public MatchmakingQueue emptyState() {
+        return MatchmakingQueue.empty();
+    }
+
+    public Effect<MatchStatus> join(JoinRequest request) {
+        MatchmakingQueue currentQueue = currentState();
+        MatchmakingQueue updatedQueue = currentQueue.enqueue(
+            commandContext().entityId(), request.playerId(), request.rating(), System.currentTimeMillis());
+        if (updatedQueue == currentQueue) {
+            return effects().reply(new MatchStatus(true, Optional.empty()));
+        }
+        return effects()
+            .updateState(updatedQueue)
+            .thenReply(new MatchStatus(true, Optional.empty()));
+    }
+
+    /**
+     * Whether the player is waiting, the game of a player that isn't is given by its {@link PlayerMatchEntity}.
+     */
+    public ReadOnlyEffect<MatchStatus> getMatch(String playerId) {
+        return effects().reply(new MatchStatus(currentState().isWaiting(playerId), Optional.empty()));
+    }
+
+    public Effect<Done> recordMatches(Matches matches) {
+        MatchmakingQueue updatedQueue =
+            currentState().withStartedMatches(matches.matches(), System.currentTimeMillis());
+        if (updatedQueue == currentState()) {
+            return effects().reply(done());
+        }
+        if (tracing.sampled()) {
+            tracing.event("Recorded matches")
+                .addKeyValue("queueId", commandContext().entityId())
+                .addKeyValue("matches", matches.matches().size())
+                .addKeyValue("waitingPlayers", updatedQueue.waiting().size())
+                .log();
+        }
+        return effects()
+            .updateState(updatedQueue)
+            .thenReply(done());
+    }
+
+    /**
+     * Matches the waiting players with the rating windows they have grown to, and replies with the number of players
+     * left waiting. Called by the {@link MatchmakingTimer} while players are waiting, since the windows only grow with
+     * time and not with state changes. The state is only written when players have been matched.
+     */
+    public Effect<Integer> matchWaiting() {
+        MatchmakingQueue updatedQueue =
+            currentState().matchWaiting(commandContext().entityId(), System.currentTimeMillis());
+        if (updatedQueue == currentState()) {
+            return effects().reply(updatedQueue.waiting().size());
+        }
+        return effects()
+            .updateState(updatedQueue)
+            .thenReply(updatedQueue.waiting().size());
+    }
+
+    public ReadOnlyEffect<MatchmakingQueue.Stats> getStats() {
+        return effects().reply(currentState().stats(System.currentTimeMillis()));
+    }
+}
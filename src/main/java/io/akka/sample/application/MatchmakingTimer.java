@@ -0,0 +1,56 @@
+package io.akka.sample.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timedaction.TimedAction;
+import akka.javasdk.timer.TimerScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static akka.Done.done;
+
+/**
+ * Pairs the players left waiting in a matchmaking queue again every {@link #INTERVAL}, with the rating windows they
+ * have grown to, for as long as at least two players are waiting.
+ * <p>
+ * Timers are named after the queue and the interval they fire in, so the {@link MatchmakingConsumer} and the timer
+ * itself can both schedule the next one without pushing it back, and there is at most one per queue and interval.
+ */
+@ComponentId("matchmaking_timer")
+public class MatchmakingTimer extends TimedAction {
+
+  static final Duration INTERVAL = Duration.ofSeconds(1);
+
+  private final ComponentClient componentClient;
+
+  public MatchmakingTimer(ComponentClient componentClient) {
+    this.componentClient = componentClient;
+  }
+
+  public Effect matchWaiting(String queueId) {
+    return effects().asyncDone(componentClient.forKeyValueEntity(queueId)
+        .method(MatchmakingQueueEntity::matchWaiting)
+        .invokeAsync()
+        .thenCompose(waiting -> waiting >= 2 ?
+            schedule(timers(), componentClient, queueId) :
+            CompletableFuture.completedFuture(done())));
+  }
+
+  /**
+   * Schedules matching the waiting players of the queue at the start of the next interval.
+   */
+  static CompletionStage<Done> schedule(TimerScheduler timers, ComponentClient componentClient, String queueId) {
+    long intervalMillis = INTERVAL.toMillis();
+    long nowMillis = System.currentTimeMillis();
+    long atMillis = (nowMillis / intervalMillis + 1) * intervalMillis;
+    return timers.startSingleTimer(
+        "match-waiting-" + queueId + "-" + atMillis,
+        Duration.ofMillis(atMillis - nowMillis),
+        componentClient.forTimedAction()
+            .method(MatchmakingTimer::matchWaiting)
+            .deferred(queueId));
+  }
+}
@@ -7,11 +7,14 @@ import io.akka.sample.domain.Player;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 import static akka.Done.done;
 
 @ComponentId("player")
 public class PlayerEntity extends KeyValueEntity<Player> {
     private static final Logger logger = LoggerFactory.getLogger(PlayerEntity.class);
+    private static final Tracing tracing = Tracing.forComponent(PlayerEntity.class);
 
     public Effect<Done> createPlayer(Player playerState) {
         if (currentState() != null) {
@@ -30,7 +33,27 @@ public class PlayerEntity extends KeyValueEntity<Player> {
         }
         logger.info("Updating player name to: {}", name);
         return effects()
-            .updateState(new Player(currentState().id(), name))
+            .updateState(currentState().withName(name))
+            .thenReply(done());
+    }
+
+    /**
+     * Sets the number of recent games the player remembers to not record the same game twice, for players whose
+     * results arrive far enough out of order that the default window isn't enough.
+     */
+    public Effect<Done> setGameHistoryCapacity(int capacity) {
+        if (currentState() == null) {
+            return effects().error("Player not found for id '" + commandContext().entityId() + "'");
+        }
+        if (capacity < 1) {
+            return effects().error("Game history capacity must be at least 1");
+        }
+        if (capacity == currentState().gameHistoryCapacity()) {
+            return effects().reply(done());
+        }
+        logger.info("Setting game history capacity of player {} to {}", currentState().id(), capacity);
+        return effects()
+            .updateState(currentState().withGameHistoryCapacity(capacity))
             .thenReply(done());
     }
 
@@ -47,11 +70,11 @@ public class PlayerEntity extends KeyValueEntity<Player> {
         }
 
         if (currentState().hasRecordedGame(gameId)) {
-            logger.info("Game {} already recorded for player {}", gameId, currentState().id());
+            trace("Game already recorded", gameId);
             return effects().reply(done());
         }
 
-        logger.info("Player {} won game {}", currentState().id(), gameId);
+        trace("Game won", gameId);
         return effects()
             .updateState(currentState().incrementWins(gameId))
             .thenReply(done());
@@ -63,13 +86,56 @@ public class PlayerEntity extends KeyValueEntity<Player> {
         }
 
         if (currentState().hasRecordedGame(gameId)) {
-            logger.info("Game {} already recorded for player {}", gameId, currentState().id());
+            trace("Game already recorded", gameId);
             return effects().reply(done());
         }
 
-        logger.info("Player {} lost game {}", currentState().id(), gameId);
+        trace("Game lost", gameId);
         return effects()
             .updateState(currentState().incrementLosses(gameId))
             .thenReply(done());
     }
+
+    public record GameResults(List<Player.GameResult> results) {}
+
+    /**
+     * Records the results of several games in one update. Games that are already recorded are skipped, in the same
+     * way as for {@link #gameWon} and {@link #gameLost}.
+     */
+    public Effect<Done> recordGameResults(GameResults gameResults) {
+        if (currentState() == null) {
+            return effects().error("Player not found for id '" + commandContext().entityId() + "'");
+        }
+
+        Player updatedPlayer = currentState().recordResults(gameResults.results());
+        if (updatedPlayer.equals(currentState())) {
+            if (tracing.sampled()) {
+                tracing.event("Games already recorded")
+                    .addKeyValue("playerId", currentState().id())
+                    .addKeyValue("results", gameResults.results().size())
+                    .log();
+            }
+            return effects().reply(done());
+        }
+
+        if (tracing.sampled()) {
+            tracing.event("Recording game results")
+                .addKeyValue("playerId", currentState().id())
+                .addKeyValue("results", gameResults.results().size())
+                .addKeyValue("rating", updatedPlayer.rating())
+                .log();
+        }
+        return effects()
+            .updateState(updatedPlayer)
+            .thenReply(done());
+    }
+
+    private void trace(String message, String gameId) {
+        if (tracing.sampled()) {
+            tracing.event(message)
+                .addKeyValue("playerId", currentState().id())
+                .addKeyValue("gameId", gameId)
+                .log();
+        }
+    }
 }
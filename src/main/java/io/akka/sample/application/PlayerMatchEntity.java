@@ -0,0 +1,40 @@
+package io.akka.sample.application;
+
+import akka.Done;
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import io.akka.sample.domain.MatchedGame;
+
+import java.util.Optional;
+
+import static akka.Done.done;
+
+/**
+ * The latest match of a player in a matchmaking queue, recorded by the {@link MatchmakingConsumer} once the game of the
+ * match has been started. One entity per player and queue, so the queue itself only keeps the waiting players.
+ */
+@ComponentId("player_match")
+public class PlayerMatchEntity extends KeyValueEntity<MatchedGame> {
+
+    public static String entityId(String queueId, String playerId) {
+        return queueId + ":" + playerId;
+    }
+
+    /**
+     * Records the match, unless a later match has been recorded already.
+     */
+    public Effect<Done> recordMatch(MatchedGame matchedGame) {
+        MatchedGame current = currentState();
+        if (current != null && (current.equals(matchedGame) ||
+            current.matchedAtMillis() > matchedGame.matchedAtMillis())) {
+            return effects().reply(done());
+        }
+        return effects()
+            .updateState(matchedGame)
+            .thenReply(done());
+    }
+
+    public ReadOnlyEffect<Optional<String>> getGameId() {
+        return effects().reply(Optional.ofNullable(currentState()).map(MatchedGame::gameId));
+    }
+}
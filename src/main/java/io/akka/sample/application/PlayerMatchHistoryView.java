@@ -0,0 +1,58 @@
+package io.akka.sample.application;
+
+import akka.javasdk.annotations.ComponentId;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import io.akka.sample.domain.GameEvent;
+
+import java.util.List;
+
+/**
+ * The finished games of each player, most recent first, in pages, for listing the games of players with many games
+ * without going through all of them.
+ * <p>
+ * A game is added when it's over, with both players from its {@link GameEvent.GameOver} event, so games in progress
+ * don't cost any updates. Pages are read with the page token of the previous page, so every page takes the same time
+ * however far back it is.
+ */
+@ComponentId("player_match_history_view")
+public class PlayerMatchHistoryView extends View {
+
+  public record Match(String gameId, List<String> playerIds, String winnerId, String loserId, long endedAt) {}
+
+  /**
+   * {@code pageToken} is empty for the first page, and the {@code nextPageToken} of the previous page after that.
+   */
+  public record MatchesRequest(String playerId, String pageToken, int pageSize) {}
+
+  public record MatchesPage(List<Match> matches, String nextPageToken, boolean hasMore) {}
+
+  @Consume.FromEventSourcedEntity(GameEntity.class)
+  public static class MatchUpdater extends TableUpdater<Match> {
+    public Effect<Match> onEvent(GameEvent event) {
+      return switch (event) {
+        case GameEvent.GameOver evt -> effects().updateRow(new Match(
+            updateContext().eventSubject().orElse(""),
+            List.of(evt.winnerId(), evt.loserId()),
+            evt.winnerId(),
+            evt.loserId(),
+            evt.endedAt()));
+        default -> effects().ignore();
+      };
+    }
+  }
+
+  @Query("""
+      SELECT * AS matches, next_page_token() AS nextPageToken, has_more() AS hasMore
+      FROM player_match_history_view
+      WHERE :playerId = ANY(playerIds)
+      ORDER BY endedAt DESC
+      OFFSET page_token_offset(:pageToken)
+      LIMIT :pageSize
+      """)
+  public QueryEffect<MatchesPage> getMatches(MatchesRequest request) {
+    return queryResult();
+  }
+}
@@ -0,0 +1,289 @@
+package io.akka.sample.application;
+
+import akka.Done;
+import akka.javasdk.client.ComponentClient;
+import io.akka.sample.domain.Bot;
+import io.akka.sample.domain.Game;
+import io.akka.sample.domain.Player;
+import io.akka.sample.domain.Tournament;
+import io.akka.sample.domain.Tournament.Pairing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static akka.Done.done;
+
+/**
+ * Runs tournaments between bots. The games are played in memory with the {@link Game} domain logic, in chunks on
+ * virtual threads, so a round isn't limited by the entities. After each round the results are recorded to the
+ * {@link PlayerEntity} of each bot, with a few {@code recordGameResults} commands per bot, from where they reach the
+ * {@link LeaderboardView} as for any other player.
+ * <p>
+ * The commands of a bot are sent one after the other, each with at most as many results as the bot remembers games,
+ * and a command that fails is sent again, up to {@code MAX_ATTEMPTS} times. A command that was recorded, and only
+ * failed on the way back, is then recognized as recorded already instead of counting its games twice. New bots remember
+ * {@code RESULTS_PER_COMMAND} games, and players that existed before keep their own capacity, so they get smaller
+ * commands.
+ * <p>
+ * The progress of a tournament is kept on the node that runs it, until {@code MAX_FINISHED_TOURNAMENTS} later
+ * tournaments have finished.
+ */
+public final class TournamentRunner {
+  private static final Logger logger = LoggerFactory.getLogger(TournamentRunner.class);
+  private static final int GAMES_PER_TASK = 1000;
+  private static final int RESULTS_PER_COMMAND = 500;
+  private static final int MAX_ATTEMPTS = 3;
+  private static final int MAX_FINISHED_TOURNAMENTS = 100;
+
+  public record TournamentRequest(
+      String tournamentId,
+      List<Tournament.Entrant> entrants,
+      Tournament.Format format,
+      int rounds,
+      int gamesPerPairing,
+      long seed
+  ) {}
+
+  public record TournamentResult(
+      String tournamentId,
+      int rounds,
+      long gamesPlayed,
+      long draws,
+      long durationMillis,
+      List<Tournament.Standing> standings
+  ) {}
+
+  /**
+   * {@code result} is set when the tournament is over, and {@code error} when it has failed.
+   */
+  public record TournamentProgress(
+      String tournamentId,
+      int rounds,
+      int roundsPlayed,
+      long gamesPlayed,
+      Optional<TournamentResult> result,
+      Optional<String> error
+  ) {
+    public boolean finished() {
+      return result.isPresent() || error.isPresent();
+    }
+  }
+
+  private record Chunk(int pairingIndex, Pairing pairing, int firstGame, Game.Result[] results) {}
+
+  private final ComponentClient componentClient;
+  private final Map<String, TournamentProgress> tournaments = new ConcurrentHashMap<>();
+  private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+
+  public TournamentRunner(ComponentClient componentClient) {
+    this.componentClient = componentClient;
+  }
+
+  /**
+   * Starts running the tournament on a virtual thread, and returns its progress before any game has been played. Its
+   * progress is then given by {@link #progress}. Returns empty if a tournament with the same id is running.
+   */
+  public Optional<TournamentProgress> start(TournamentRequest request) {
+    String tournamentId = request.tournamentId();
+    var started = new TournamentProgress(tournamentId, 0, 0, 0, Optional.empty(), Optional.empty());
+    TournamentProgress previous = tournaments.compute(tournamentId, (id, existing) ->
+        existing != null && !existing.finished() ? existing : started);
+    if (previous != started) {
+      return Optional.empty();
+    }
+    // the id may have been run before
+    finished.remove(tournamentId);
+
+    Thread.ofVirtual().name("tournament-" + tournamentId).start(() -> {
+      try {
+        TournamentResult result = run(request);
+        finish(new TournamentProgress(tournamentId, result.rounds(), result.rounds(), result.gamesPlayed(),
+            Optional.of(result), Optional.empty()));
+      } catch (Throwable e) {
+        logger.error("Tournament {} failed", tournamentId, e);
+        TournamentProgress progress = tournaments.get(tournamentId);
+        finish(new TournamentProgress(tournamentId, progress.rounds(), progress.roundsPlayed(),
+            progress.gamesPlayed(), Optional.empty(), Optional.of(String.valueOf(e.getMessage()))));
+      }
+    });
+    return Optional.of(started);
+  }
+
+  public Optional<TournamentProgress> progress(String tournamentId) {
+    return Optional.ofNullable(tournaments.get(tournamentId));
+  }
+
+  private void finish(TournamentProgress progress) {
+    tournaments.put(progress.tournamentId(), progress);
+    finished.add(progress.tournamentId());
+    while (finished.size() > MAX_FINISHED_TOURNAMENTS) {
+      String oldest = finished.poll();
+      if (oldest != null) {
+        tournaments.computeIfPresent(oldest, (id, existing) -> existing.finished() ? null : existing);
+      }
+    }
+  }
+
+  TournamentResult run(TournamentRequest request) throws InterruptedException, ExecutionException {
+    long start = System.nanoTime();
+    Map<String, Player> players = createPlayers(request.entrants());
+    Map<String, Integer> ratings = ratings(players);
+    Tournament tournament = new Tournament(request.entrants());
+    List<List<Pairing>> roundRobin = request.format() == Tournament.Format.ROUND_ROBIN ?
+        tournament.roundRobinRounds() : List.of();
+    int rounds = request.format() == Tournament.Format.ROUND_ROBIN ? roundRobin.size() : request.rounds();
+    tournaments.put(request.tournamentId(), new TournamentProgress(request.tournamentId(), rounds, 0, 0,
+        Optional.empty(), Optional.empty()));
+
+    long gamesPlayed = 0;
+    long draws = 0;
+    for (int round = 0; round < rounds; round++) {
+      List<Pairing> pairings = request.format() == Tournament.Format.ROUND_ROBIN ?
+          roundRobin.get(round) : tournament.nextSwissRound();
+
+      Map<String, List<Player.GameResult>> playerResults = new LinkedHashMap<>();
+      for (Chunk chunk : playRound(request, round, pairings)) {
+        Pairing pairing = chunk.pairing();
+        String firstPlayerId = pairing.first().playerId();
+        String secondPlayerId = pairing.second().playerId();
+        for (int i = 0; i < chunk.results().length; i++) {
+          Game.Result result = chunk.results()[i];
+          tournament.record(pairing, result);
+          gamesPlayed++;
+          if (result == Game.Result.IN_PROGRESS) {
+            draws++;
+            continue;
+          }
+          String gameId = request.tournamentId() + "-" + round + "-" + chunk.pairingIndex() + "-" +
+              (chunk.firstGame() + i);
+          boolean firstWon = result == Game.Result.PLAYER_ONE_WINS;
+          playerResults.computeIfAbsent(firstPlayerId, __ -> new ArrayList<>())
+              .add(new Player.GameResult(gameId, firstWon, ratings.get(secondPlayerId)));
+          playerResults.computeIfAbsent(secondPlayerId, __ -> new ArrayList<>())
+              .add(new Player.GameResult(gameId, !firstWon, ratings.get(firstPlayerId)));
+        }
+      }
+      recordResults(playerResults, players);
+      players = currentPlayers(request.entrants());
+      ratings = ratings(players);
+      tournaments.put(request.tournamentId(), new TournamentProgress(request.tournamentId(), rounds, round + 1,
+          gamesPlayed, Optional.empty(), Optional.empty()));
+    }
+
+    long durationMillis = (System.nanoTime() - start) / 1_000_000;
+    logger.info("Tournament {} played {} games in {} rounds in {} ms",
+        request.tournamentId(), gamesPlayed, rounds, durationMillis);
+    return new TournamentResult(request.tournamentId(), rounds, gamesPlayed, draws, durationMillis,
+        tournament.standings());
+  }
+
+  private List<Chunk> playRound(TournamentRequest request, int round, List<Pairing> pairings)
+      throws InterruptedException, ExecutionException {
+    List<Future<Chunk>> chunks = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int pairingIndex = 0; pairingIndex < pairings.size(); pairingIndex++) {
+        Pairing pairing = pairings.get(pairingIndex);
+        int index = pairingIndex;
+        for (int firstGame = 0; firstGame < request.gamesPerPairing(); firstGame += GAMES_PER_TASK) {
+          int from = firstGame;
+          int to = Math.min(request.gamesPerPairing(), firstGame + GAMES_PER_TASK);
+          chunks.add(executor.submit(() -> playChunk(request.seed(), round, index, pairing, from, to)));
+        }
+      }
+    }
+    List<Chunk> played = new ArrayList<>(chunks.size());
+    for (Future<Chunk> chunk : chunks) {
+      played.add(chunk.get());
+    }
+    return played;
+  }
+
+  private static Chunk playChunk(long seed, int round, int pairingIndex, Pairing pairing, int from, int to) {
+    var random = new SplittableRandom(Objects.hash(seed, round, pairingIndex, from));
+    Game.Result[] results = new Game.Result[to - from];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = Bot.play(
+          pairing.first().playerId(), pairing.first().bot(),
+          pairing.second().playerId(), pairing.second().bot(),
+          random).evaluateWinner();
+    }
+    return new Chunk(pairingIndex, pairing, from, results);
+  }
+
+  private Map<String, Player> createPlayers(List<Tournament.Entrant> entrants) {
+    CompletableFuture.allOf(entrants.stream()
+        .map(entrant -> componentClient.forKeyValueEntity(entrant.playerId())
+            .method(PlayerEntity::createPlayer)
+            .invokeAsync(new Player(entrant.playerId(), entrant.bot().name() + " bot", RESULTS_PER_COMMAND))
+            .toCompletableFuture())
+        .toArray(CompletableFuture[]::new)).join();
+    return currentPlayers(entrants);
+  }
+
+  private Map<String, Player> currentPlayers(List<Tournament.Entrant> entrants) {
+    Map<String, CompletableFuture<Player>> players = new HashMap<>();
+    for (Tournament.Entrant entrant : entrants) {
+      players.put(entrant.playerId(), componentClient.forKeyValueEntity(entrant.playerId())
+          .method(PlayerEntity::getPlayer)
+          .invokeAsync()
+          .toCompletableFuture());
+    }
+    Map<String, Player> current = new HashMap<>();
+    players.forEach((playerId, player) -> current.put(playerId, player.join()));
+    return current;
+  }
+
+  private static Map<String, Integer> ratings(Map<String, Player> players) {
+    Map<String, Integer> ratings = new HashMap<>();
+    players.forEach((playerId, player) -> ratings.put(playerId, player.rating()));
+    return ratings;
+  }
+
+  /**
+   * Records the results to all players at once, with the commands of each player one after the other.
+   */
+  private void recordResults(Map<String, List<Player.GameResult>> playerResults, Map<String, Player> players) {
+    List<CompletableFuture<?>> updates = new ArrayList<>();
+    playerResults.forEach((playerId, results) -> {
+      int resultsPerCommand = Math.min(RESULTS_PER_COMMAND, players.get(playerId).gameHistoryCapacity());
+      CompletionStage<Done> recorded = CompletableFuture.completedFuture(done());
+      for (int from = 0; from < results.size(); from += resultsPerCommand) {
+        var chunk = List.copyOf(results.subList(from, Math.min(results.size(), from + resultsPerCommand)));
+        recorded = recorded.thenCompose(__ -> recordGameResults(playerId, chunk, 1));
+      }
+      updates.add(recorded.toCompletableFuture());
+    });
+    CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)).join();
+  }
+
+  private CompletionStage<Done> recordGameResults(String playerId, List<Player.GameResult> results, int attempt) {
+    return componentClient.forKeyValueEntity(playerId)
+        .method(PlayerEntity::recordGameResults)
+        .invokeAsync(new PlayerEntity.GameResults(results))
+        .exceptionallyCompose(e -> {
+          if (attempt >= MAX_ATTEMPTS) {
+            return CompletableFuture.failedFuture(e);
+          }
+          logger.warn("Recording {} game results of player {} failed, attempt {} of {}",
+              results.size(), playerId, attempt, MAX_ATTEMPTS, e);
+          return recordGameResults(playerId, results, attempt + 1);
+        });
+  }
+}
@@ -0,0 +1,104 @@
+package io.akka.sample.application;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Sampled, structured logging for the commands and events that every game goes through, which are too frequent to
+ * log each one.
+ * <p>
+ * Callers check {@link #sampled()} before building an event, so a request that isn't sampled doesn't allocate:
+ * <pre>{@code
+ * if (tracing.sampled()) {
+ *   tracing.event("move-made").addKeyValue("gameId", gameId).addKeyValue("playerId", playerId).log();
+ * }
+ * }</pre>
+ * The share of requests that are sampled is {@code rock-paper-scissors.tracing.sample-rate}, and can be set per
+ * component in {@code rock-paper-scissors.tracing.component-sample-rates}. Every request is sampled when the logger of
+ * the component is at DEBUG level, and none when it's above INFO, so logback levels control each component as usual.
+ * <p>
+ * The settings are read from the config of the service, which {@code Bootstrap} passes to {@link #configure}. The
+ * sample rate of a component is read on its first request rather than when the component class is loaded, since that
+ * may be before {@code Bootstrap} has run.
+ */
+public final class Tracing {
+
+  private static volatile Config serviceConfig;
+
+  private final Logger logger;
+  private final DoubleSupplier sampleRateSetting;
+  private volatile double sampleRate = Double.NaN;
+
+  Tracing(Logger logger, double sampleRate) {
+    this(logger, () -> sampleRate);
+  }
+
+  private Tracing(Logger logger, DoubleSupplier sampleRateSetting) {
+    this.logger = logger;
+    this.sampleRateSetting = sampleRateSetting;
+  }
+
+  /**
+   * Sets the config of the service that the settings are read from.
+   */
+  public static void configure(Config config) {
+    serviceConfig = config;
+  }
+
+  public static Tracing forComponent(Class<?> component) {
+    // components that run without the service, such as in entity unit tests, use the default config
+    return new Tracing(LoggerFactory.getLogger(component), () ->
+        sampleRate(serviceConfig != null ? serviceConfig : ConfigFactory.load(), component));
+  }
+
+  static Tracing forComponent(Class<?> component, Config config) {
+    return new Tracing(LoggerFactory.getLogger(component), () -> sampleRate(config, component));
+  }
+
+  private static double sampleRate(Config config, Class<?> component) {
+    Config settings = config.getConfig("rock-paper-scissors.tracing");
+    String componentPath = "component-sample-rates." + component.getSimpleName();
+    return settings.hasPath(componentPath) ? settings.getDouble(componentPath) : settings.getDouble("sample-rate");
+  }
+
+  /**
+   * Whether the current request should be traced.
+   */
+  public boolean sampled() {
+    if (logger.isDebugEnabled()) {
+      return true;
+    }
+    double rate = sampleRate();
+    return rate > 0 && logger.isInfoEnabled() && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+  }
+
+  private double sampleRate() {
+    double rate = sampleRate;
+    if (Double.isNaN(rate)) {
+      rate = sampleRateSetting.getAsDouble();
+      sampleRate = rate;
+    }
+    return rate;
+  }
+
+  /**
+   * A new trace event with the given message, to add the fields of the request to and then log. Only call when the
+   * request is {@link #sampled()}.
+   */
+  public LoggingEventBuilder event(String message) {
+    return logger.atInfo().setMessage(message);
+  }
+
+  /**
+   * Microseconds since the given {@link System#nanoTime()}, for the latency field of an event.
+   */
+  public static long microsSince(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1000;
+  }
+}
@@ -0,0 +1,71 @@
+package io.akka.sample.domain;
+
+import io.akka.sample.domain.Game.Move;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+
+/**
+ * Strategies of bots that play against each other in a tournament. Each strategy decides its next move from the
+ * moves of both players so far.
+ */
+public enum Bot {
+    /** Plays a random move. */
+    RANDOM,
+    /** Always plays rock. */
+    ROCK,
+    /** Plays rock, paper and scissors in turn. */
+    CYCLE,
+    /** Plays the move that beats the last move of the opponent. */
+    BEAT_LAST,
+    /** Plays the last move of the opponent. */
+    COPY_LAST;
+
+    private static final Move[] MOVES = Move.values();
+
+    /**
+     * Rounds after which a game that has no winner yet is a draw, so that two bots that always tie don't play forever.
+     */
+    public static final int MAX_ROUNDS = 100;
+
+    public Move nextMove(List<Move> ownMoves, List<Move> opponentMoves, RandomGenerator random) {
+        return switch (this) {
+            case RANDOM -> randomMove(random);
+            case ROCK -> Move.ROCK;
+            case CYCLE -> MOVES[ownMoves.size() % MOVES.length];
+            case BEAT_LAST -> opponentMoves.isEmpty() ? randomMove(random) : beating(last(opponentMoves));
+            case COPY_LAST -> opponentMoves.isEmpty() ? randomMove(random) : last(opponentMoves);
+        };
+    }
+
+    /**
+     * Plays a game between the two bots, in memory, until one of them has won or {@link #MAX_ROUNDS} have been played.
+     */
+    public static Game play(String firstPlayerId, Bot firstBot, String secondPlayerId, Bot secondBot,
+                            RandomGenerator random) {
+        Game game = new Game(firstPlayerId, Optional.of(secondPlayerId));
+        for (int round = 0; round < MAX_ROUNDS && game.evaluateWinner() == Game.Result.IN_PROGRESS; round++) {
+            Move firstMove = firstBot.nextMove(game.getFirstPlayerMoves(), game.getSecondPlayerMoves(), random);
+            Move secondMove = secondBot.nextMove(game.getSecondPlayerMoves(), game.getFirstPlayerMoves(), random);
+            game = game.addMove(0, firstMove).addMove(1, secondMove);
+        }
+        return game;
+    }
+
+    private static Move randomMove(RandomGenerator random) {
+        return MOVES[random.nextInt(MOVES.length)];
+    }
+
+    private static Move last(List<Move> moves) {
+        return moves.get(moves.size() - 1);
+    }
+
+    private static Move beating(Move move) {
+        return switch (move) {
+            case ROCK -> Move.PAPER;
+            case PAPER -> Move.SCISSORS;
+            case SCISSORS -> Move.ROCK;
+        };
+    }
+}
@@ -1,82 +1,109 @@
 package io.akka.sample.domain;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * State of a game. The scores and the result are kept up to date by {@link #addMove} so that reading them doesn't
+ * require a scan over all rounds. The moves are kept in a {@link MoveLog}, packed 2 bits per move and appended to
+ * without copying.
+ */
 public record Game(
     String firstPlayerId,
     Optional<String> secondPlayerId,
-    List<Move> firstPlayerMoves,
-    List<Move> secondPlayerMoves
+    @JsonDeserialize(using = MoveLog.Deserializer.class) List<Move> firstPlayerMoves,
+    @JsonDeserialize(using = MoveLog.Deserializer.class) List<Move> secondPlayerMoves,
+    int firstPlayerScore,
+    int secondPlayerScore,
+    Result result
 ) {
     private static final int WINNING_SCORE = 2;
 
-    public Game(String firstPlayerId, Optional<String> secondPlayerId) {
-        this(firstPlayerId, secondPlayerId, new ArrayList<>(), new ArrayList<>());
-    }
-
-    public Game addMove(String playerId, Move move) {
-        List<Move> newFirstPlayerMoves = new ArrayList<>(firstPlayerMoves);
-        List<Move> newSecondPlayerMoves = new ArrayList<>(secondPlayerMoves);
-
-        if (playerId.equals(firstPlayerId)) {
-            newFirstPlayerMoves.add(move);
-        } else if (secondPlayerId.isPresent() && playerId.equals(secondPlayerId.get())) {
-            newSecondPlayerMoves.add(move);
+    public Game {
+        firstPlayerMoves = MoveLog.copyOf(firstPlayerMoves);
+        secondPlayerMoves = MoveLog.copyOf(secondPlayerMoves);
+        if (result == null) {
+            // snapshot stored before scores and result were part of the state, derive them from the moves
+            Game scored = scoreRounds(firstPlayerId, secondPlayerId, firstPlayerMoves, secondPlayerMoves);
+            firstPlayerScore = scored.firstPlayerScore();
+            secondPlayerScore = scored.secondPlayerScore();
+            result = scored.result();
         }
-
-        return new Game(firstPlayerId, secondPlayerId, newFirstPlayerMoves, newSecondPlayerMoves);
     }
 
-    public List<Move> getFirstPlayerMoves() {
-        return Collections.unmodifiableList(firstPlayerMoves);
+    public Game(String firstPlayerId, Optional<String> secondPlayerId) {
+        this(firstPlayerId, secondPlayerId, MoveLog.empty(), MoveLog.empty(), 0, 0, Result.IN_PROGRESS);
     }
 
-    public List<Move> getSecondPlayerMoves() {
-        return Collections.unmodifiableList(secondPlayerMoves);
+    public Game(String firstPlayerId, Optional<String> secondPlayerId, List<Move> firstPlayerMoves, List<Move> secondPlayerMoves) {
+        this(firstPlayerId, secondPlayerId, firstPlayerMoves, secondPlayerMoves, 0, 0, null);
     }
 
-    public int completedRounds() {
-        return Math.min(firstPlayerMoves.size(), secondPlayerMoves.size());
+    public Game addMove(String playerId, Move move) {
+        int playerIndex = playerIndex(playerId);
+        return playerIndex < 0 ? this : addMove(playerIndex, move);
     }
 
-    private record Scores(int firstPlayerScore, int secondPlayerScore) {}
-
-    private Scores calculateScores() {
-        if (secondPlayerId.isEmpty()) {
-            return new Scores(0, 0);
+    /**
+     * Returns 0 for the first player, 1 for the second player and -1 for any other player.
+     */
+    public int playerIndex(String playerId) {
+        if (playerId.equals(firstPlayerId)) {
+            return 0;
         }
+        return secondPlayerId.isPresent() && playerId.equals(secondPlayerId.get()) ? 1 : -1;
+    }
 
-        int firstPlayerScore = 0;
-        int secondPlayerScore = 0;
-        int rounds = completedRounds();
+    /**
+     * Adds the move of the first (0) or second (1) player.
+     */
+    public Game addMove(int playerIndex, Move move) {
+        boolean isFirstPlayer = playerIndex == 0;
 
-        for (int i = 0; i < rounds; i++) {
-            Move firstPlayerMove = firstPlayerMoves.get(i);
-            Move secondPlayerMove = secondPlayerMoves.get(i);
+        List<Move> newFirstPlayerMoves = isFirstPlayer ? MoveLog.copyOf(firstPlayerMoves).append(move) : firstPlayerMoves;
+        List<Move> newSecondPlayerMoves = isFirstPlayer ? secondPlayerMoves : MoveLog.copyOf(secondPlayerMoves).append(move);
 
-            if (firstPlayerMove == secondPlayerMove) {
-                continue; // It's a tie for this round
-            }
+        int newFirstPlayerScore = firstPlayerScore;
+        int newSecondPlayerScore = secondPlayerScore;
+        Result newResult = result;
 
+        // the move completes a round when the other player already has a move at the same index
+        int round = (isFirstPlayer ? newFirstPlayerMoves.size() : newSecondPlayerMoves.size()) - 1;
+        if (round < newFirstPlayerMoves.size() && round < newSecondPlayerMoves.size()) {
+            Move firstPlayerMove = newFirstPlayerMoves.get(round);
+            Move secondPlayerMove = newSecondPlayerMoves.get(round);
             if (firstPlayerMove.beats(secondPlayerMove)) {
-                firstPlayerScore++;
-            } else {
-                secondPlayerScore++;
+                newFirstPlayerScore++;
+            } else if (secondPlayerMove.beats(firstPlayerMove)) {
+                newSecondPlayerScore++;
             }
+            newResult = nextResult(result, newFirstPlayerScore, newSecondPlayerScore);
         }
 
-        return new Scores(firstPlayerScore, secondPlayerScore);
+        return new Game(firstPlayerId, secondPlayerId, newFirstPlayerMoves, newSecondPlayerMoves,
+            newFirstPlayerScore, newSecondPlayerScore, newResult);
+    }
+
+    public List<Move> getFirstPlayerMoves() {
+        return firstPlayerMoves;
+    }
+
+    public List<Move> getSecondPlayerMoves() {
+        return secondPlayerMoves;
+    }
+
+    public int completedRounds() {
+        return Math.min(firstPlayerMoves.size(), secondPlayerMoves.size());
     }
 
     public int getFirstPlayerScore() {
-        return calculateScores().firstPlayerScore();
+        return firstPlayerScore;
     }
 
     public int getSecondPlayerScore() {
-        return calculateScores().secondPlayerScore();
+        return secondPlayerScore;
     }
 
     public enum Move {
@@ -96,31 +123,69 @@ public record Game(
     }
 
     public Result evaluateWinner() {
-        if (secondPlayerId.isEmpty()) {
+        return result;
+    }
+
+    /**
+     * The first player to reach the winning score wins, later rounds don't change the result.
+     */
+    private static Result nextResult(Result current, int firstPlayerScore, int secondPlayerScore) {
+        if (current != Result.IN_PROGRESS) {
+            return current;
+        } else if (firstPlayerScore == WINNING_SCORE) {
+            return Result.PLAYER_ONE_WINS;
+        } else if (secondPlayerScore == WINNING_SCORE) {
+            return Result.PLAYER_TWO_WINS;
+        } else {
             return Result.IN_PROGRESS;
         }
+    }
 
+    /**
+     * Scores all completed rounds, 32 rounds at a time with {@link MoveLog#beatsMask}.
+     */
+    private static Game scoreRounds(String firstPlayerId, Optional<String> secondPlayerId,
+                                    List<Move> firstPlayerMoves, List<Move> secondPlayerMoves) {
         int firstPlayerScore = 0;
         int secondPlayerScore = 0;
-        int rounds = completedRounds();
-
-        for (int i = 0; i < rounds; i++) {
-            Move firstPlayerMove = firstPlayerMoves.get(i);
-            Move secondPlayerMove = secondPlayerMoves.get(i);
-
-            if (firstPlayerMove.beats(secondPlayerMove)) {
-                firstPlayerScore++;
-            } else if (secondPlayerMove.beats(firstPlayerMove)) {
-                secondPlayerScore++;
-            }
-
-            if (firstPlayerScore == WINNING_SCORE) {
-                return Result.PLAYER_ONE_WINS;
-            } else if (secondPlayerScore == WINNING_SCORE) {
-                return Result.PLAYER_TWO_WINS;
+        Result result = Result.IN_PROGRESS;
+
+        if (secondPlayerId.isPresent()) {
+            MoveLog first = MoveLog.copyOf(firstPlayerMoves);
+            MoveLog second = MoveLog.copyOf(secondPlayerMoves);
+            int rounds = Math.min(first.size(), second.size());
+            for (int word = 0; word * MoveLog.MOVES_PER_WORD < rounds; word++) {
+                long firstPlayerWins = first.beatsMask(second, word);
+                long secondPlayerWins = second.beatsMask(first, word);
+
+                if (result == Result.IN_PROGRESS) {
+                    // compare the positions of the wins that take each player to the winning score
+                    long firstPlayerDecidingWin = nthLowestBit(firstPlayerWins, WINNING_SCORE - firstPlayerScore);
+                    long secondPlayerDecidingWin = nthLowestBit(secondPlayerWins, WINNING_SCORE - secondPlayerScore);
+                    if (firstPlayerDecidingWin != 0 &&
+                        (secondPlayerDecidingWin == 0 || Long.compareUnsigned(firstPlayerDecidingWin, secondPlayerDecidingWin) < 0)) {
+                        result = Result.PLAYER_ONE_WINS;
+                    } else if (secondPlayerDecidingWin != 0) {
+                        result = Result.PLAYER_TWO_WINS;
+                    }
+                }
+
+                firstPlayerScore += Long.bitCount(firstPlayerWins);
+                secondPlayerScore += Long.bitCount(secondPlayerWins);
             }
         }
 
-        return Result.IN_PROGRESS;
+        return new Game(firstPlayerId, secondPlayerId, firstPlayerMoves, secondPlayerMoves,
+            firstPlayerScore, secondPlayerScore, result);
+    }
+
+    /**
+     * Returns the n:th lowest set bit of the mask, or 0 if fewer than n bits are set.
+     */
+    private static long nthLowestBit(long mask, int n) {
+        for (int i = 1; i < n; i++) {
+            mask &= mask - 1;
+        }
+        return Long.lowestOneBit(mask);
     }
 }
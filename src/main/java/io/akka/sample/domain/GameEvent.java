@@ -1,5 +1,6 @@
 package io.akka.sample.domain;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.akka.sample.domain.Game.Move;
 import akka.javasdk.annotations.TypeName;
 
@@ -11,9 +12,49 @@ sealed public interface GameEvent {
     @TypeName("game-started")
     record GameStarted(String player1Id, String player2Id) implements GameEvent {}
 
+    /**
+     * The end of a game that never started, because its first player was moved to another lobby shard before a second
+     * player joined.
+     */
+    @TypeName("game-cancelled")
+    record GameCancelled(String player1Id) implements GameEvent {}
+
+    /**
+     * A move as persisted before {@link CompactMoveMade}, still read from the events of existing games.
+     */
     @TypeName("move-made")
     record MoveMade(String playerId, Move move) implements GameEvent {}
 
+    /**
+     * A move of the first (0) or second (1) player, stored as {@code {"p":0,"m":1}} with the ordinal of the move
+     * rather than repeating the player id and the move name in every move.
+     */
+    @TypeName("move-made-v2")
+    record CompactMoveMade(
+        @JsonProperty("p") int playerIndex,
+        @JsonProperty("m") int moveOrdinal
+    ) implements GameEvent {
+        private static final Move[] MOVES = Move.values();
+
+        public CompactMoveMade(int playerIndex, Move move) {
+            this(playerIndex, move.ordinal());
+        }
+
+        public Move move() {
+            if (moveOrdinal < 0 || moveOrdinal >= MOVES.length) {
+                throw new IllegalArgumentException("Invalid move ordinal " + moveOrdinal);
+            }
+            return MOVES[moveOrdinal];
+        }
+    }
+
+    /**
+     * The end of a game, at {@code endedAt} epoch milliseconds, which is 0 in events persisted before it was added.
+     */
     @TypeName("game-over")
-    record GameOver(String winnerId, String loserId) implements GameEvent {}
+    record GameOver(String winnerId, String loserId, long endedAt) implements GameEvent {
+        public GameOver(String winnerId, String loserId) {
+            this(winnerId, loserId, 0);
+        }
+    }
 }
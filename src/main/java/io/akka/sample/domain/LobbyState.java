@@ -18,4 +18,15 @@ public record LobbyState(Optional<String> player1Id, Optional<String> player2Id,
     public LobbyState withPlayer2(String player2Id) {
         return new LobbyState(player1Id, Optional.of(player2Id), gameId);
     }
+
+    /**
+     * True when a player is waiting in the lobby for a second player.
+     */
+    public boolean hasWaitingPlayer() {
+        return player1Id.isPresent() && player2Id.isEmpty();
+    }
+
+    public boolean isWaiting(String playerId) {
+        return hasWaitingPlayer() && player1Id.get().equals(playerId);
+    }
 }
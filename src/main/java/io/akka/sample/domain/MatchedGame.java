@@ -0,0 +1,6 @@
+package io.akka.sample.domain;
+
+/**
+ * The game of the latest match of a player in a matchmaking queue, matched at {@code matchedAtMillis}.
+ */
+public record MatchedGame(String gameId, long matchedAtMillis) {}
@@ -0,0 +1,207 @@
+package io.akka.sample.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Players waiting to be matched, in rating order, and the matches whose games are being started. Both can be looked
+ * up by player id, see {@link WaitingPlayers} and {@link PendingMatches}.
+ * <p>
+ * A joining player is matched right away with the closer of its neighbours in rating order, if that one is within the
+ * rating window of either player, which is O(log n) in the number of waiting players. Players without an opponent
+ * wait, and are paired again by {@link #matchWaiting} with the windows they have grown to. The rating window starts at
+ * {@link #INITIAL_RATING_WINDOW} and grows the longer a player waits, so that no one waits forever.
+ * <p>
+ * Matches are pending until their games have been started and they are recorded with {@link #withStartedMatches}.
+ * The game id of a match is derived from the players and their join times. Once recorded, the queue no longer has the
+ * match, the game of a matched player is kept by the player.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true) // recentMatches of state stored before the matches were kept by players
+public record MatchmakingQueue(
+    List<WaitingPlayer> waiting,
+    List<Match> pendingMatches,
+    long matchedPlayers,
+    long totalWaitMillis,
+    long maxWaitMillis
+) {
+    public static final int INITIAL_RATING_WINDOW = 100;
+    public static final int RATING_WINDOW_GROWTH_PER_SECOND = 50;
+
+    public record WaitingPlayer(String playerId, long joinedAtMillis, int rating) {
+        public WaitingPlayer {
+            if (rating <= 0) {
+                // state stored before players were matched by rating
+                rating = Rating.INITIAL;
+            }
+        }
+    }
+
+    /**
+     * {@code player1} is the player that has waited longest.
+     */
+    public record Match(String gameId, WaitingPlayer player1, WaitingPlayer player2, long matchedAtMillis) {}
+
+    /**
+     * Queue depth and how long matched players have waited.
+     */
+    public record Stats(int waitingPlayers, long oldestWaitMillis, long matchedPlayers, long averageWaitMillis,
+                        long maxWaitMillis) {}
+
+    public MatchmakingQueue {
+        waiting = WaitingPlayers.copyOf(waiting == null ? List.of() : waiting);
+        pendingMatches = PendingMatches.copyOf(pendingMatches == null ? List.of() : pendingMatches);
+    }
+
+    public static MatchmakingQueue empty() {
+        return new MatchmakingQueue(WaitingPlayers.empty(), PendingMatches.empty(), 0, 0, 0);
+    }
+
+    /**
+     * Whether the player is waiting for an opponent, or for the game of its match to be started.
+     */
+    public boolean isWaiting(String playerId) {
+        return waitingPlayers().find(playerId).isPresent() || pending().find(playerId).isPresent();
+    }
+
+    /**
+     * Returns a new queue with the player matched with a waiting player, or else waiting, or this queue if the player
+     * is already waiting.
+     */
+    public MatchmakingQueue enqueue(String queueId, String playerId, int rating, long nowMillis) {
+        if (isWaiting(playerId)) {
+            return this;
+        }
+        WaitingPlayer player = new WaitingPlayer(playerId, nowMillis, rating);
+        Optional<WaitingPlayer> below = waitingPlayers().below(player)
+            .filter(opponent -> withinWindow(player, opponent, nowMillis));
+        Optional<WaitingPlayer> above = waitingPlayers().above(player)
+            .filter(opponent -> withinWindow(player, opponent, nowMillis));
+        WaitingPlayer opponent = closest(player, below.orElse(null), above.orElse(null));
+        if (opponent == null) {
+            return new MatchmakingQueue(waitingPlayers().with(player), pendingMatches, matchedPlayers,
+                totalWaitMillis, maxWaitMillis);
+        }
+        return new MatchmakingQueue(waitingPlayers().without(opponent),
+            pending().with(match(queueId, opponent, player, nowMillis)), matchedPlayers, totalWaitMillis,
+            maxWaitMillis);
+    }
+
+    /**
+     * Returns a new queue where the waiting players that are within the rating window of each other now are matched,
+     * or this queue if there are no such players. It's one pass over the players in rating order: each player is
+     * matched with the closer of the nearest unmatched players below and above it, if that one is within the rating
+     * window of the player, and with the one that has waited longest when both are equally close.
+     */
+    public MatchmakingQueue matchWaiting(String queueId, long nowMillis) {
+        WaitingPlayers newWaiting = waitingPlayers();
+        PendingMatches newPending = pending();
+        // players below the current one that are left unmatched, the closest last
+        Deque<WaitingPlayer> unmatched = new ArrayDeque<>();
+        Iterator<WaitingPlayer> players = waiting.iterator();
+        WaitingPlayer next = players.hasNext() ? players.next() : null;
+        while (next != null) {
+            WaitingPlayer player = next;
+            next = players.hasNext() ? players.next() : null;
+            WaitingPlayer opponent = closest(player, unmatched.peekLast(), next);
+            if (opponent == null || Math.abs(opponent.rating() - player.rating()) > ratingWindow(player, nowMillis)) {
+                unmatched.addLast(player);
+                continue;
+            }
+            if (opponent == next) {
+                next = players.hasNext() ? players.next() : null;
+            } else {
+                unmatched.removeLast();
+            }
+            newWaiting = newWaiting.without(player).without(opponent);
+            newPending = newPending.with(match(queueId, player, opponent, nowMillis));
+        }
+        if (newPending == pendingMatches) {
+            return this;
+        }
+        return new MatchmakingQueue(newWaiting, newPending, matchedPlayers, totalWaitMillis, maxWaitMillis);
+    }
+
+    /**
+     * Returns a new queue without the matches, whose games have been started. Matches that aren't pending are ignored.
+     */
+    public MatchmakingQueue withStartedMatches(List<Match> matches, long nowMillis) {
+        PendingMatches newPending = pending();
+        long newMatchedPlayers = matchedPlayers;
+        long newTotalWaitMillis = totalWaitMillis;
+        long newMaxWaitMillis = maxWaitMillis;
+        for (Match match : matches) {
+            if (newPending.contains(match)) {
+                newPending = newPending.without(match);
+                for (WaitingPlayer player : List.of(match.player1(), match.player2())) {
+                    long waitMillis = Math.max(0, nowMillis - player.joinedAtMillis());
+                    newMatchedPlayers++;
+                    newTotalWaitMillis += waitMillis;
+                    newMaxWaitMillis = Math.max(newMaxWaitMillis, waitMillis);
+                }
+            }
+        }
+        if (newPending == pendingMatches) {
+            return this;
+        }
+        return new MatchmakingQueue(waiting, newPending, newMatchedPlayers, newTotalWaitMillis, newMaxWaitMillis);
+    }
+
+    public Stats stats(long nowMillis) {
+        long oldestWaitMillis = waiting.stream()
+            .mapToLong(player -> Math.max(0, nowMillis - player.joinedAtMillis()))
+            .max()
+            .orElse(0);
+        long averageWaitMillis = matchedPlayers == 0 ? 0 : totalWaitMillis / matchedPlayers;
+        return new Stats(waiting.size(), oldestWaitMillis, matchedPlayers, averageWaitMillis, maxWaitMillis);
+    }
+
+    /**
+     * The closer of the two players, and the one that has waited longest when both are equally close.
+     */
+    private static WaitingPlayer closest(WaitingPlayer player, WaitingPlayer below, WaitingPlayer above) {
+        if (below == null || above == null) {
+            return below == null ? above : below;
+        }
+        int belowDistance = player.rating() - below.rating();
+        int aboveDistance = above.rating() - player.rating();
+        if (belowDistance == aboveDistance) {
+            return below.joinedAtMillis() <= above.joinedAtMillis() ? below : above;
+        }
+        return belowDistance < aboveDistance ? below : above;
+    }
+
+    private static boolean withinWindow(WaitingPlayer player, WaitingPlayer opponent, long nowMillis) {
+        int distance = Math.abs(opponent.rating() - player.rating());
+        return distance <= ratingWindow(player, nowMillis) || distance <= ratingWindow(opponent, nowMillis);
+    }
+
+    private static int ratingWindow(WaitingPlayer player, long nowMillis) {
+        long waitMillis = Math.max(0, nowMillis - player.joinedAtMillis());
+        return (int) Math.min(Integer.MAX_VALUE,
+            INITIAL_RATING_WINDOW + waitMillis * RATING_WINDOW_GROWTH_PER_SECOND / 1000);
+    }
+
+    private static Match match(String queueId, WaitingPlayer player, WaitingPlayer opponent, long nowMillis) {
+        WaitingPlayer first = opponent.joinedAtMillis() < player.joinedAtMillis() ? opponent : player;
+        WaitingPlayer second = first == player ? opponent : player;
+        String key = queueId + "/" + first.playerId() + "/" + first.joinedAtMillis() + "/" +
+            second.playerId() + "/" + second.joinedAtMillis();
+        String gameId = UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+        return new Match(gameId, first, second, nowMillis);
+    }
+
+    private WaitingPlayers waitingPlayers() {
+        return (WaitingPlayers) waiting;
+    }
+
+    private PendingMatches pending() {
+        return (PendingMatches) pendingMatches;
+    }
+}
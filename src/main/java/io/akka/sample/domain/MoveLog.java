@@ -0,0 +1,237 @@
+package io.akka.sample.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.akka.sample.domain.Game.Move;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable list of moves that can be appended to without copying the existing moves.
+ * <p>
+ * Each move is packed into 2 bits of a {@code long[]}, 32 moves per word, with the {@link Move#ordinal()} as value.
+ * That is 16 times less than a reference per move, and it allows scoring 32 rounds at a time with bitwise operations,
+ * see {@link #beatsMask}.
+ * <p>
+ * All versions appended from the same origin share one backing array. Appending to the most recent version writes
+ * into the free capacity of that array, and only appending to an older version, or to a full array, copies. That makes
+ * {@link #append} amortized O(1), so building up a game of n moves costs O(n) time and memory.
+ * <p>
+ * In JSON the log is written in the packed form, as {@code "<size>:<base64 of the packed bytes>"}. Reading also
+ * accepts a list of move names, which is how moves were stored before.
+ */
+@JsonSerialize(using = MoveLog.Serializer.class)
+@JsonDeserialize(using = MoveLog.Deserializer.class)
+public final class MoveLog extends AbstractList<Move> implements RandomAccess {
+    public static final int MOVES_PER_WORD = Long.SIZE / 2;
+
+    private static final long MOVE_MASK = 0b11L;
+    private static final long LOW_BITS = 0x5555_5555_5555_5555L;
+    private static final int INITIAL_CAPACITY = MOVES_PER_WORD;
+    private static final Move[] MOVES = Move.values();
+    private static final MoveLog EMPTY = new MoveLog(new Buffer(0), 0);
+
+    /**
+     * Backing array shared by the versions of a log. {@code claimed} is the number of moves that have been written by
+     * some version, a version may only write into the array when it is the one that has claimed all moves before it.
+     */
+    private static final class Buffer {
+        final long[] words;
+        final AtomicInteger claimed;
+
+        Buffer(int capacity) {
+            this.words = new long[(capacity + MOVES_PER_WORD - 1) / MOVES_PER_WORD];
+            this.claimed = new AtomicInteger();
+        }
+
+        int capacity() {
+            return words.length * MOVES_PER_WORD;
+        }
+
+        void set(int index, Move move) {
+            words[index / MOVES_PER_WORD] |= (long) move.ordinal() << shift(index);
+        }
+    }
+
+    private final Buffer buffer;
+    private final int size;
+
+    private MoveLog(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    public static MoveLog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the given moves as a {@code MoveLog}, without copying if it already is one.
+     */
+    public static MoveLog copyOf(List<Move> moves) {
+        if (moves instanceof MoveLog log) {
+            return log;
+        }
+        Buffer buffer = new Buffer(Math.max(INITIAL_CAPACITY, moves.size()));
+        for (int i = 0; i < moves.size(); i++) {
+            buffer.set(i, Objects.requireNonNull(moves.get(i)));
+        }
+        buffer.claimed.set(moves.size());
+        return new MoveLog(buffer, moves.size());
+    }
+
+    /**
+     * Returns a new log with the move added at the end. This log is not changed.
+     */
+    public MoveLog append(Move move) {
+        Objects.requireNonNull(move);
+        if (size < buffer.capacity() && buffer.claimed.compareAndSet(size, size + 1)) {
+            buffer.set(size, move);
+            return new MoveLog(buffer, size + 1);
+        }
+
+        Buffer grown = new Buffer(Math.max(INITIAL_CAPACITY, size * 2));
+        int fullWords = size / MOVES_PER_WORD;
+        System.arraycopy(buffer.words, 0, grown.words, 0, fullWords);
+        if (size % MOVES_PER_WORD != 0) {
+            // the shared word may contain moves appended by other versions after this one
+            grown.words[fullWords] = buffer.words[fullWords] & laneMask(size % MOVES_PER_WORD);
+        }
+        grown.set(size, move);
+        grown.claimed.set(size + 1);
+        return new MoveLog(grown, size + 1);
+    }
+
+    @Override
+    public Move get(int index) {
+        Objects.checkIndex(index, size);
+        return MOVES[(int) ((buffer.words[index / MOVES_PER_WORD] >>> shift(index)) & MOVE_MASK)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compares the moves of the rounds {@code word * MOVES_PER_WORD} until {@code (word + 1) * MOVES_PER_WORD} with the
+     * moves of {@code other}. The returned mask has bit {@code 2 * i} set when the move of round
+     * {@code word * MOVES_PER_WORD + i} in this log beats the move in {@code other}. Rounds that are missing in either
+     * log are not included, so {@link Long#bitCount} of the mask is the number of rounds won in that word.
+     */
+    public long beatsMask(MoveLog other, int word) {
+        int rounds = Math.min(size, other.size) - word * MOVES_PER_WORD;
+        if (rounds <= 0) {
+            return 0L;
+        }
+
+        long a = buffer.words[word];
+        long b = other.buffer.words[word];
+        long aLow = a & LOW_BITS;
+        long aHigh = (a >>> 1) & LOW_BITS;
+        long bLow = b & LOW_BITS;
+        long bHigh = (b >>> 1) & LOW_BITS;
+
+        // ROCK is 00, PAPER is 01 and SCISSORS is 10
+        long rockBeatsScissors = ~aHigh & ~aLow & bHigh & ~bLow;
+        long paperBeatsRock = ~aHigh & aLow & ~bHigh & ~bLow;
+        long scissorsBeatsPaper = aHigh & ~aLow & ~bHigh & bLow;
+
+        return (rockBeatsScissors | paperBeatsRock | scissorsBeatsPaper) & LOW_BITS & laneMask(rounds);
+    }
+
+    private static int shift(int index) {
+        return (index % MOVES_PER_WORD) * 2;
+    }
+
+    /**
+     * Mask covering the first {@code moves} lanes of a word.
+     */
+    private static long laneMask(int moves) {
+        return moves >= MOVES_PER_WORD ? -1L : (1L << (moves * 2)) - 1;
+    }
+
+    private String encode() {
+        byte[] bytes = new byte[(size + 3) / 4];
+        for (int i = 0; i < bytes.length; i++) {
+            long value = buffer.words[i / 8] >>> ((i % 8) * 8);
+            int moves = Math.min(4, size - i * 4);
+            bytes[i] = (byte) (value & laneMask(moves) & 0xFF);
+        }
+        return size + ":" + Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static MoveLog decode(String encoded) {
+        int separator = encoded.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid encoded move log: " + encoded);
+        }
+        int size = Integer.parseInt(encoded, 0, separator, 10);
+        byte[] bytes = Base64.getDecoder().decode(encoded.substring(separator + 1));
+        if (bytes.length != (size + 3) / 4) {
+            throw new IllegalArgumentException("Invalid encoded move log, expected " + size + " moves: " + encoded);
+        }
+        Buffer buffer = new Buffer(Math.max(INITIAL_CAPACITY, size));
+        for (int i = 0; i < bytes.length; i++) {
+            int moves = Math.min(4, size - i * 4);
+            for (int lane = 0; lane < 4; lane++) {
+                int value = (bytes[i] >>> (lane * 2)) & 0b11;
+                if (lane < moves ? value >= MOVES.length : value != 0) {
+                    throw new IllegalArgumentException(
+                        "Invalid encoded move log, move " + (i * 4 + lane) + " has value " + value + ": " + encoded);
+                }
+            }
+            buffer.words[i / 8] |= (bytes[i] & 0xFFL) << ((i % 8) * 8);
+        }
+        buffer.claimed.set(size);
+        return new MoveLog(buffer, size);
+    }
+
+    static final class Serializer extends StdSerializer<MoveLog> {
+        Serializer() {
+            super(MoveLog.class);
+        }
+
+        @Override
+        public void serialize(MoveLog log, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(log.encode());
+        }
+    }
+
+    /**
+     * Reads the packed form, or a list of move names. Also used for the {@code List<Move>} components of {@link Game}.
+     */
+    static final class Deserializer extends StdDeserializer<MoveLog> {
+        private static final TypeReference<List<Move>> MOVE_LIST = new TypeReference<>() {};
+
+        Deserializer() {
+            super(MoveLog.class);
+        }
+
+        @Override
+        public MoveLog deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                try {
+                    return decode(parser.getText());
+                } catch (IllegalArgumentException e) {
+                    return (MoveLog) ctxt.handleWeirdStringValue(MoveLog.class, parser.getText(), e.getMessage());
+                }
+            }
+            return copyOf(ctxt.readValue(parser, ctxt.getTypeFactory().constructType(MOVE_LIST)));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.akka.sample.domain;
+
+import io.akka.sample.domain.MatchmakingQueue.Match;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable list of the matches of a matchmaking queue whose games haven't been started yet, ordered by game id, and
+ * indexed by the ids of both players. Like {@link WaitingPlayers} it's kept in {@link Treap}s, so adding or removing a
+ * match is O(log n).
+ * <p>
+ * In JSON it's a list of matches.
+ */
+public final class PendingMatches extends AbstractList<Match> {
+
+    private record PlayerMatch(String playerId, Match match) {}
+
+    private static final PendingMatches EMPTY = new PendingMatches(
+        Treap.empty(Comparator.comparing(Match::gameId)),
+        Treap.empty(Comparator.comparing(PlayerMatch::playerId)));
+
+    private final Treap<Match> byGameId;
+    private final Treap<PlayerMatch> byPlayerId;
+
+    private PendingMatches(Treap<Match> byGameId, Treap<PlayerMatch> byPlayerId) {
+        this.byGameId = byGameId;
+        this.byPlayerId = byPlayerId;
+    }
+
+    public static PendingMatches empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the given matches as {@code PendingMatches}, without copying if it already is one.
+     */
+    public static PendingMatches copyOf(List<Match> matches) {
+        if (matches instanceof PendingMatches pendingMatches) {
+            return pendingMatches;
+        }
+        PendingMatches copy = EMPTY;
+        for (Match match : matches) {
+            copy = copy.with(match);
+        }
+        return copy;
+    }
+
+    public Optional<Match> find(String playerId) {
+        return byPlayerId.find(new PlayerMatch(playerId, null)).map(PlayerMatch::match);
+    }
+
+    public boolean contains(Match match) {
+        return byGameId.find(match).map(match::equals).orElse(false);
+    }
+
+    public PendingMatches with(Match match) {
+        return new PendingMatches(
+            byGameId.with(match),
+            byPlayerId
+                .with(new PlayerMatch(match.player1().playerId(), match))
+                .with(new PlayerMatch(match.player2().playerId(), match)));
+    }
+
+    /**
+     * Returns a new list without the match, or this list if it doesn't have the match.
+     */
+    public PendingMatches without(Match match) {
+        if (!contains(match)) {
+            return this;
+        }
+        return new PendingMatches(
+            byGameId.without(match),
+            byPlayerId
+                .without(new PlayerMatch(match.player1().playerId(), match))
+                .without(new PlayerMatch(match.player2().playerId(), match)));
+    }
+
+    @Override
+    public Match get(int index) {
+        return byGameId.get(index);
+    }
+
+    @Override
+    public Iterator<Match> iterator() {
+        return byGameId.iterator();
+    }
+
+    @Override
+    public int size() {
+        return byGameId.size();
+    }
+}
@@ -1,26 +1,64 @@
 package io.akka.sample.domain;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
  * Represents a player with their game statistics and history.
+ * <p>
+ * {@code recentGameIds} holds the ids of the last {@code gameHistoryCapacity} games, which are used to not record the
+ * same game twice. It's a {@link RecentGames}, so checking and updating it doesn't depend on the capacity.
+ * <p>
+ * {@code rating} is the Elo rating of the player, see {@link Rating}, which is used to match players of similar skill.
  */
 public record Player(
     String id,
     String name,
     int gamesWon,
     int gamesLost,
-    List<String> recentGameIds
+    List<String> recentGameIds,
+    int gameHistoryCapacity,
+    int rating
 ) {
-  private static final int MAX_GAME_HISTORY = 10;
+  public static final int DEFAULT_GAME_HISTORY_CAPACITY = 10;
+
+  /**
+   * Outcome of one game for this player. {@code opponentRating} is the rating of the opponent before the game, or 0
+   * when it isn't known, in which case the rating of this player isn't changed.
+   */
+  public record GameResult(String gameId, boolean won, int opponentRating) {
+    public GameResult(String gameId, boolean won) {
+      this(gameId, won, 0);
+    }
+  }
+
+  public Player {
+    if (gameHistoryCapacity <= 0) {
+      // state stored before the capacity was configurable
+      gameHistoryCapacity = DEFAULT_GAME_HISTORY_CAPACITY;
+    }
+    if (rating <= 0) {
+      // state stored before players were rated
+      rating = Rating.INITIAL;
+    }
+    recentGameIds = RecentGames.copyOf(recentGameIds == null ? List.of() : recentGameIds, gameHistoryCapacity);
+  }
 
   /**
    * Creates a new player with initial statistics.
    */
   public Player(String id, String name) {
-    this(id, name, 0, 0, new ArrayList<>());
+    this(id, name, DEFAULT_GAME_HISTORY_CAPACITY);
+  }
+
+  /**
+   * Creates a new player with initial statistics, remembering the given number of recent games.
+   */
+  public Player(String id, String name, int gameHistoryCapacity) {
+    this(id, name, 0, 0, List.of(), gameHistoryCapacity, Rating.INITIAL);
+  }
+
+  public Player(String id, String name, int gamesWon, int gamesLost, List<String> recentGameIds) {
+    this(id, name, gamesWon, gamesLost, recentGameIds, DEFAULT_GAME_HISTORY_CAPACITY, Rating.INITIAL);
   }
 
   /**
@@ -46,18 +84,14 @@ public record Player(
       return this;
     }
 
-    List<String> newGameIds = new ArrayList<>(recentGameIds);
-    newGameIds.add(gameId);
-    if (newGameIds.size() > MAX_GAME_HISTORY) {
-      newGameIds.remove(0);
-    }
-
     return new Player(
         id,
         name,
         gamesWon + 1,
         gamesLost,
-        Collections.unmodifiableList(newGameIds)
+        recentGames().append(gameId),
+        gameHistoryCapacity,
+        rating
     );
   }
 
@@ -70,18 +104,57 @@ public record Player(
       return this;
     }
 
-    List<String> newGameIds = new ArrayList<>(recentGameIds);
-    newGameIds.add(gameId);
-    if (newGameIds.size() > MAX_GAME_HISTORY) {
-      newGameIds.remove(0);
-    }
-
     return new Player(
         id,
         name,
         gamesWon,
         gamesLost + 1,
-        Collections.unmodifiableList(newGameIds)
+        recentGames().append(gameId),
+        gameHistoryCapacity,
+        rating
     );
   }
+
+  /**
+   * Returns a new Player instance with all the results recorded. Results of games that have already been recorded,
+   * including earlier in the same list, are ignored.
+   */
+  public Player recordResults(List<GameResult> results) {
+    Player updated = this;
+    for (GameResult result : results) {
+      if (updated.hasRecordedGame(result.gameId())) {
+        continue;
+      }
+      updated = result.won() ? updated.incrementWins(result.gameId()) : updated.incrementLosses(result.gameId());
+      if (result.opponentRating() > 0) {
+        updated = updated.withRating(Rating.afterGame(updated.rating(), result.opponentRating(), result.won()));
+      }
+    }
+    return updated;
+  }
+
+  /**
+   * Returns a new Player instance with the given rating.
+   */
+  public Player withRating(int newRating) {
+    return new Player(id, name, gamesWon, gamesLost, recentGameIds, gameHistoryCapacity, newRating);
+  }
+
+  /**
+   * Returns a new Player instance with the given name, keeping the statistics, history and rating.
+   */
+  public Player withName(String newName) {
+    return new Player(id, newName, gamesWon, gamesLost, recentGameIds, gameHistoryCapacity, rating);
+  }
+
+  /**
+   * Returns a new Player instance that remembers the given number of recent games, keeping the most recent ones.
+   */
+  public Player withGameHistoryCapacity(int capacity) {
+    return new Player(id, name, gamesWon, gamesLost, recentGameIds, capacity, rating);
+  }
+
+  private RecentGames recentGames() {
+    return RecentGames.copyOf(recentGameIds, gameHistoryCapacity);
+  }
 }
@@ -0,0 +1,25 @@
+package io.akka.sample.domain;
+
+/**
+ * Elo ratings of players, updated from the outcome of each game.
+ */
+public final class Rating {
+    public static final int INITIAL = 1500;
+
+    /**
+     * How much one game can change a rating.
+     */
+    private static final int K_FACTOR = 32;
+
+    private Rating() {}
+
+    /**
+     * Returns the rating after a game against an opponent with the given rating. Both ratings are those before the
+     * game.
+     */
+    public static int afterGame(int rating, int opponentRating, boolean won) {
+        double expectedScore = 1.0 / (1.0 + Math.pow(10.0, (opponentRating - rating) / 400.0));
+        double score = won ? 1.0 : 0.0;
+        return Math.max(1, (int) Math.round(rating + K_FACTOR * (score - expectedScore)));
+    }
+}
@@ -0,0 +1,127 @@
+package io.akka.sample.domain;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable window of the most recent game ids of a player, oldest first, with O(1) membership test and O(1)
+ * amortized {@link #append}, which evicts the oldest id when the window is at capacity.
+ * <p>
+ * Versions appended from the same origin share an append-only log of ids and a hash index from id to its position
+ * in the log, and each version is a window {@code [start, end)} of that log. Appending to the most recent version
+ * writes to the log. Appending to an older version, or to a full log, copies the window into a new log of twice the
+ * capacity, which happens at most once per {@code capacity} appends in the common case.
+ */
+public final class RecentGames extends AbstractList<String> implements RandomAccess {
+
+    /**
+     * Log shared by the versions. {@code claimed} is the number of ids that have been written by some version, a
+     * version may only append when it is the one that has claimed all positions before it. An id is written at most
+     * once to a log, so its position in the index never changes.
+     */
+    private static final class Log {
+        final String[] ids;
+        final Map<String, Integer> positions;
+        final AtomicInteger claimed;
+
+        Log(int length) {
+            this.ids = new String[length];
+            this.positions = new ConcurrentHashMap<>(length);
+            this.claimed = new AtomicInteger();
+        }
+    }
+
+    private final Log log;
+    private final int start;
+    private final int end;
+    private final int capacity;
+
+    private RecentGames(Log log, int start, int end, int capacity) {
+        this.log = log;
+        this.start = start;
+        this.end = end;
+        this.capacity = capacity;
+    }
+
+    public static RecentGames empty(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, was " + capacity);
+        }
+        return new RecentGames(new Log(2 * capacity), 0, 0, capacity);
+    }
+
+    /**
+     * Returns the most recent, last, {@code capacity} distinct ids of the given list. Doesn't copy if it already is a
+     * {@code RecentGames} with the same capacity.
+     */
+    public static RecentGames copyOf(List<String> gameIds, int capacity) {
+        if (gameIds instanceof RecentGames recentGames && recentGames.capacity == capacity) {
+            return recentGames;
+        }
+        RecentGames result = empty(capacity);
+        for (String gameId : gameIds) {
+            result = result.append(gameId);
+        }
+        return result;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String gameId)) {
+            return false;
+        }
+        Integer position = log.positions.get(gameId);
+        return position != null && position >= start && position < end;
+    }
+
+    /**
+     * Returns a new window with the game id added, and the oldest id evicted if the window is at capacity. Returns this
+     * window if the id is already included.
+     */
+    public RecentGames append(String gameId) {
+        Objects.requireNonNull(gameId);
+        if (contains(gameId)) {
+            return this;
+        }
+
+        int newStart = end - start == capacity ? start + 1 : start;
+        if (end < log.ids.length && !log.positions.containsKey(gameId) && log.claimed.compareAndSet(end, end + 1)) {
+            log.ids[end] = gameId;
+            log.positions.put(gameId, end);
+            return new RecentGames(log, newStart, end + 1, capacity);
+        }
+
+        Log compacted = new Log(2 * capacity);
+        int size = 0;
+        for (int i = newStart; i < end; i++) {
+            compacted.ids[size] = log.ids[i];
+            compacted.positions.put(log.ids[i], size);
+            size++;
+        }
+        compacted.ids[size] = gameId;
+        compacted.positions.put(gameId, size);
+        size++;
+        compacted.claimed.set(size);
+        return new RecentGames(compacted, 0, size, capacity);
+    }
+
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size());
+        return log.ids[start + index];
+    }
+
+    @Override
+    public int size() {
+        return end - start;
+    }
+}
@@ -0,0 +1,175 @@
+package io.akka.sample.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Schedule and standings of a tournament between bots. With {@link Format#ROUND_ROBIN} every entrant is paired with
+ * every other entrant once, and with {@link Format#SWISS} the entrants are paired round by round with entrants that
+ * have a similar score, and not with an entrant they have already been paired with when that can be avoided.
+ * <p>
+ * Each pairing plays a number of games, and an entrant scores a point for every game won. With an odd number of
+ * entrants one of them sits out each round.
+ */
+public final class Tournament {
+
+    public enum Format { ROUND_ROBIN, SWISS }
+
+    public record Entrant(String playerId, Bot bot) {}
+
+    public record Pairing(Entrant first, Entrant second) {}
+
+    public record Standing(String playerId, Bot bot, int gamesWon, int gamesLost, int draws) {}
+
+    private static final int MAX_SWISS_SEARCH_STEPS = 100_000;
+
+    private final List<Entrant> entrants;
+    private final Map<String, int[]> results = new LinkedHashMap<>();
+    private final Set<String> paired = new HashSet<>();
+
+    public Tournament(List<Entrant> entrants) {
+        this.entrants = List.copyOf(entrants);
+        entrants.forEach(entrant -> results.put(entrant.playerId(), new int[3]));
+    }
+
+    /**
+     * All rounds of a round robin, by the circle method: one entrant stays in place while the others rotate.
+     */
+    public List<List<Pairing>> roundRobinRounds() {
+        List<Entrant> circle = new ArrayList<>(entrants);
+        if (circle.size() % 2 == 1) {
+            circle.add(null);
+        }
+        int size = circle.size();
+        List<List<Pairing>> rounds = new ArrayList<>();
+        for (int round = 0; round < size - 1; round++) {
+            List<Pairing> pairings = new ArrayList<>();
+            for (int i = 0; i < size / 2; i++) {
+                Entrant first = circle.get(i);
+                Entrant second = circle.get(size - 1 - i);
+                if (first != null && second != null) {
+                    pairings.add(new Pairing(first, second));
+                }
+            }
+            rounds.add(pairings);
+            circle.add(1, circle.remove(size - 1));
+        }
+        return rounds;
+    }
+
+    /**
+     * The pairings of the next Swiss round, from the standings so far. Entrants are paired in order of games won, each
+     * with the next entrant they haven't played yet. When that leaves entrants that can only be paired for a rematch,
+     * earlier pairings are revised, within a bounded search, before falling back to allowing rematches.
+     */
+    public List<Pairing> nextSwissRound() {
+        List<Entrant> ranked = new ArrayList<>(entrants);
+        ranked.sort(Comparator
+            .comparingInt((Entrant entrant) -> -results.get(entrant.playerId())[0])
+            .thenComparing(Entrant::playerId));
+
+        List<Pairing> pairings = new ArrayList<>();
+        int[] searchBudget = {MAX_SWISS_SEARCH_STEPS};
+        if (pairWithoutRematches(ranked, new boolean[ranked.size()], ranked.size() % 2 == 1, pairings, searchBudget)) {
+            return pairings;
+        }
+
+        pairings.clear();
+        boolean[] taken = new boolean[ranked.size()];
+        for (int i = 0; i < ranked.size(); i++) {
+            if (taken[i]) {
+                continue;
+            }
+            for (int j = i + 1; j < ranked.size(); j++) {
+                if (!taken[j]) {
+                    taken[i] = true;
+                    taken[j] = true;
+                    pairings.add(new Pairing(ranked.get(i), ranked.get(j)));
+                    break;
+                }
+            }
+        }
+        return pairings;
+    }
+
+    private boolean pairWithoutRematches(List<Entrant> ranked, boolean[] taken, boolean byeLeft,
+                                         List<Pairing> pairings, int[] searchBudget) {
+        if (--searchBudget[0] < 0) {
+            return false;
+        }
+        int i = 0;
+        while (i < ranked.size() && taken[i]) {
+            i++;
+        }
+        if (i == ranked.size()) {
+            return true;
+        }
+        taken[i] = true;
+        for (int j = i + 1; j < ranked.size(); j++) {
+            if (!taken[j] && !paired.contains(key(ranked.get(i), ranked.get(j)))) {
+                taken[j] = true;
+                pairings.add(new Pairing(ranked.get(i), ranked.get(j)));
+                if (pairWithoutRematches(ranked, taken, byeLeft, pairings, searchBudget)) {
+                    return true;
+                }
+                pairings.remove(pairings.size() - 1);
+                taken[j] = false;
+            }
+        }
+        // with an odd number of entrants, one of them sits out the round
+        if (byeLeft && pairWithoutRematches(ranked, taken, false, pairings, searchBudget)) {
+            return true;
+        }
+        taken[i] = false;
+        return false;
+    }
+
+    /**
+     * Records a played game of the pairing, which is a draw when the game has no winner.
+     */
+    public void record(Pairing pairing, Game.Result result) {
+        paired.add(key(pairing.first(), pairing.second()));
+        int[] first = results.get(pairing.first().playerId());
+        int[] second = results.get(pairing.second().playerId());
+        switch (result) {
+            case PLAYER_ONE_WINS -> {
+                first[0]++;
+                second[1]++;
+            }
+            case PLAYER_TWO_WINS -> {
+                second[0]++;
+                first[1]++;
+            }
+            case IN_PROGRESS -> {
+                first[2]++;
+                second[2]++;
+            }
+        }
+    }
+
+    /**
+     * Entrants by games won, then by fewest games lost.
+     */
+    public List<Standing> standings() {
+        return entrants.stream()
+            .map(entrant -> {
+                int[] result = results.get(entrant.playerId());
+                return new Standing(entrant.playerId(), entrant.bot(), result[0], result[1], result[2]);
+            })
+            .sorted(Comparator.comparingInt(Standing::gamesWon).reversed()
+                .thenComparingInt(Standing::gamesLost)
+                .thenComparing(Standing::playerId))
+            .toList();
+    }
+
+    private static String key(Entrant a, Entrant b) {
+        return a.playerId().compareTo(b.playerId()) < 0 ?
+            a.playerId() + "\n" + b.playerId() :
+            b.playerId() + "\n" + a.playerId();
+    }
+}
@@ -0,0 +1,220 @@
+package io.akka.sample.domain;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable sorted set, as a treap with the priority of each node derived from the hash of its element.
+ * <p>
+ * Adding or removing an element copies only the O(log n) nodes on the path to it, and shares all other nodes with
+ * the set it was made from, so the old and new versions of a large set both stay valid without copying the set.
+ * Elements are equal when the order of the set compares them as equal, and adding an element replaces an equal one.
+ */
+final class Treap<E> implements Iterable<E> {
+
+    private static final class Node<E> {
+        final E element;
+        final int priority;
+        final Node<E> left;
+        final Node<E> right;
+        final int size;
+
+        Node(E element, int priority, Node<E> left, Node<E> right) {
+            this.element = element;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + 1 + size(right);
+        }
+
+        Node<E> withChildren(Node<E> newLeft, Node<E> newRight) {
+            return newLeft == left && newRight == right ? this : new Node<>(element, priority, newLeft, newRight);
+        }
+    }
+
+    private record Split<E>(Node<E> less, Node<E> notLess) {}
+
+    private final Comparator<? super E> order;
+    private final Node<E> root;
+
+    private Treap(Comparator<? super E> order, Node<E> root) {
+        this.order = order;
+        this.root = root;
+    }
+
+    static <E> Treap<E> empty(Comparator<? super E> order) {
+        return new Treap<>(order, null);
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * The element that is equal to the given one in the order of the set, if any.
+     */
+    Optional<E> find(E element) {
+        Node<E> node = root;
+        while (node != null) {
+            int comparison = order.compare(element, node.element);
+            if (comparison == 0) {
+                return Optional.of(node.element);
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The greatest element less than the given one, if any.
+     */
+    Optional<E> lower(E element) {
+        E lower = null;
+        Node<E> node = root;
+        while (node != null) {
+            if (order.compare(node.element, element) < 0) {
+                lower = node.element;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return Optional.ofNullable(lower);
+    }
+
+    /**
+     * The least element greater than the given one, if any.
+     */
+    Optional<E> higher(E element) {
+        E higher = null;
+        Node<E> node = root;
+        while (node != null) {
+            if (order.compare(node.element, element) > 0) {
+                higher = node.element;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return Optional.ofNullable(higher);
+    }
+
+    E get(int index) {
+        Objects.checkIndex(index, size());
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index == leftSize) {
+                return node.element;
+            } else if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns a set with the element added, replacing an equal element.
+     */
+    Treap<E> with(E element) {
+        Objects.requireNonNull(element);
+        Split<E> split = split(without(root, element), element);
+        Node<E> single = new Node<>(element, priority(element), null, null);
+        return new Treap<>(order, merge(merge(split.less(), single), split.notLess()));
+    }
+
+    /**
+     * Returns a set without the element that is equal to the given one, or this set if it has no such element.
+     */
+    Treap<E> without(E element) {
+        Node<E> newRoot = without(root, element);
+        return newRoot == root ? this : new Treap<>(order, newRoot);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Deque<Node<E>> path = new ArrayDeque<>();
+        pushLeft(path, root);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = path.pop();
+                pushLeft(path, node.right);
+                return node.element;
+            }
+        };
+    }
+
+    private static <E> void pushLeft(Deque<Node<E>> path, Node<E> node) {
+        for (Node<E> current = node; current != null; current = current.left) {
+            path.push(current);
+        }
+    }
+
+    private Node<E> without(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = order.compare(element, node.element);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        } else if (comparison < 0) {
+            return node.withChildren(without(node.left, element), node.right);
+        } else {
+            return node.withChildren(node.left, without(node.right, element));
+        }
+    }
+
+    private Split<E> split(Node<E> node, E element) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (order.compare(node.element, element) < 0) {
+            Split<E> right = split(node.right, element);
+            return new Split<>(node.withChildren(node.left, right.less()), right.notLess());
+        } else {
+            Split<E> left = split(node.left, element);
+            return new Split<>(left.less(), node.withChildren(left.notLess(), node.right));
+        }
+    }
+
+    /**
+     * Merges two trees where all elements of {@code less} are less than those of {@code greater}.
+     */
+    private static <E> Node<E> merge(Node<E> less, Node<E> greater) {
+        if (less == null) {
+            return greater;
+        } else if (greater == null) {
+            return less;
+        } else if (less.priority >= greater.priority) {
+            return less.withChildren(less.left, merge(less.right, greater));
+        } else {
+            return greater.withChildren(merge(less, greater.left), greater.right);
+        }
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int priority(Object element) {
+        // spread the bits of the hash, so that similar elements don't get similar priorities
+        int hash = element.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,113 @@
+package io.akka.sample.domain;
+
+import io.akka.sample.domain.MatchmakingQueue.WaitingPlayer;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable list of the players waiting in a matchmaking queue, ordered by rating, and indexed by player id.
+ * <p>
+ * The list is the rating index of the queue: the nearest waiting players below and above a rating are found in
+ * O(log n), so a joining player is matched with its neighbours without going through the queue. Players with the same
+ * rating are ordered by how long they have waited. Both the rating order and the player id index are {@link Treap}s,
+ * so adding or removing a player is O(log n) and doesn't copy the queue.
+ * <p>
+ * In JSON it's a list of waiting players, as the waiting players were stored before. Lists stored in join order are
+ * sorted when read.
+ */
+public final class WaitingPlayers extends AbstractList<WaitingPlayer> {
+    static final Comparator<WaitingPlayer> BY_RATING = Comparator
+        .comparingInt(WaitingPlayer::rating)
+        .thenComparingLong(WaitingPlayer::joinedAtMillis)
+        .thenComparing(WaitingPlayer::playerId);
+
+    private static final Comparator<WaitingPlayer> BY_PLAYER_ID = Comparator.comparing(WaitingPlayer::playerId);
+
+    private static final WaitingPlayers EMPTY =
+        new WaitingPlayers(Treap.empty(BY_RATING), Treap.empty(BY_PLAYER_ID));
+
+    private final Treap<WaitingPlayer> byRating;
+    private final Treap<WaitingPlayer> byPlayerId;
+
+    private WaitingPlayers(Treap<WaitingPlayer> byRating, Treap<WaitingPlayer> byPlayerId) {
+        this.byRating = byRating;
+        this.byPlayerId = byPlayerId;
+    }
+
+    public static WaitingPlayers empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the given players as {@code WaitingPlayers}, without copying if it already is one. Only the first entry
+     * of a player is kept.
+     */
+    public static WaitingPlayers copyOf(List<WaitingPlayer> players) {
+        if (players instanceof WaitingPlayers waitingPlayers) {
+            return waitingPlayers;
+        }
+        WaitingPlayers copy = EMPTY;
+        for (WaitingPlayer player : players) {
+            copy = copy.with(player);
+        }
+        return copy;
+    }
+
+    public Optional<WaitingPlayer> find(String playerId) {
+        return byPlayerId.find(new WaitingPlayer(playerId, 0, Rating.INITIAL));
+    }
+
+    /**
+     * The waiting player right below the given player in rating order, if any.
+     */
+    public Optional<WaitingPlayer> below(WaitingPlayer player) {
+        return byRating.lower(player);
+    }
+
+    /**
+     * The waiting player right above the given player in rating order, if any.
+     */
+    public Optional<WaitingPlayer> above(WaitingPlayer player) {
+        return byRating.higher(player);
+    }
+
+    /**
+     * Returns a new list with the player added at its place in rating order, or this list if the player is already
+     * waiting.
+     */
+    public WaitingPlayers with(WaitingPlayer player) {
+        if (byPlayerId.find(player).isPresent()) {
+            return this;
+        }
+        return new WaitingPlayers(byRating.with(player), byPlayerId.with(player));
+    }
+
+    /**
+     * Returns a new list without the player, or this list if the player isn't waiting since the same join.
+     */
+    public WaitingPlayers without(WaitingPlayer player) {
+        if (!byPlayerId.find(player).map(player::equals).orElse(false)) {
+            return this;
+        }
+        return new WaitingPlayers(byRating.without(player), byPlayerId.without(player));
+    }
+
+    @Override
+    public WaitingPlayer get(int index) {
+        return byRating.get(index);
+    }
+
+    @Override
+    public Iterator<WaitingPlayer> iterator() {
+        return byRating.iterator();
+    }
+
+    @Override
+    public int size() {
+        return byRating.size();
+    }
+}
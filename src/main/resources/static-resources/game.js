@@ -3,10 +3,10 @@ class GameUI {
         this.playerId = '';
         this.gameId = '';
         this.lobbyId = 'lobby1';
-        this.gamePollingInterval = null;
-        this.leaderboardPollingInterval = null;
+        this.gameEventSource = null;
+        this.leaderboardEventSource = null;
         this.setupEventListeners();
-        this.startLeaderboardPolling();
+        this.startLeaderboardStream();
     }
 
     setupEventListeners() {
@@ -59,7 +59,7 @@ class GameUI {
             if (response.ok) {
                 const data = await response.json();
                 this.gameId = data.gameId;
-                this.startGamePolling();
+                this.startGameStream();
             } else {
                 joinButton.disabled = false;
                 joinButton.classList.remove('hidden');
@@ -81,30 +81,22 @@ class GameUI {
             });
 
             if (response.ok) {
-                this.updateGameState();
+                this.handleGameState(await response.json());
             }
         } catch (error) {
             console.error('Error making move:', error);
         }
     }
 
-    async updateGameState() {
-        try {
-            const response = await fetch(`/game/${this.gameId}`);
-            if (response.ok) {
-                const gameState = await response.json();
-                this.updateUI(gameState);
-
-                // Switch to game section when second player joins
-                if (gameState.secondPlayerId &&
-                    gameState.secondPlayerId.length > 0 &&
-                    document.getElementById('lobby-section').classList.contains('hidden') === false) {
-                    document.getElementById('lobby-section').classList.add('hidden');
-                    document.getElementById('game-section').classList.remove('hidden');
-                }
-            }
-        } catch (error) {
-            console.error('Error updating game state:', error);
+    handleGameState(gameState) {
+        this.updateUI(gameState);
+
+        // Switch to game section when second player joins
+        if (gameState.secondPlayerId &&
+            gameState.secondPlayerId.length > 0 &&
+            document.getElementById('lobby-section').classList.contains('hidden') === false) {
+            document.getElementById('lobby-section').classList.add('hidden');
+            document.getElementById('game-section').classList.remove('hidden');
         }
     }
 
@@ -138,11 +130,9 @@ class GameUI {
         if (gameState.winnerId) {
             gameStatus.textContent = gameState.winnerId === this.playerId ? 'You won!' : 'You lost!';
             document.querySelectorAll('.move-btn').forEach(btn => btn.disabled = true);
-            clearInterval(this.gamePollingInterval);
+            this.stopGameStream();
             // Show game over actions
             gameOverActions.classList.remove('hidden');
-            // Update leaderboard immediately when game ends
-            this.updateLeaderboard();
         } else if (!gameState.secondPlayerId || gameState.secondPlayerId.length === 0) {
             gameStatus.textContent = 'Waiting for opponent to join...';
             document.querySelectorAll('.move-btn').forEach(btn => btn.disabled = true);
@@ -172,19 +162,18 @@ class GameUI {
         return emojis[move] || '';
     }
 
-    startGamePolling() {
-        this.gamePollingInterval = setInterval(() => this.updateGameState(), 1000);
+    startGameStream() {
+        this.stopGameStream();
+        // The server pushes the game state each time it changes
+        this.gameEventSource = new EventSource(`/game/${this.gameId}/stream`);
+        this.gameEventSource.onmessage = (event) => this.handleGameState(JSON.parse(event.data));
+        this.gameEventSource.onerror = (error) => console.error('Error in game state stream:', error);
     }
 
-    async updateLeaderboard() {
-        try {
-            const response = await fetch('/game/leaderboard');
-            if (response.ok) {
-                const leaderboard = await response.json();
-                this.updateLeaderboardUI(leaderboard);
-            }
-        } catch (error) {
-            console.error('Error updating leaderboard:', error);
+    stopGameStream() {
+        if (this.gameEventSource) {
+            this.gameEventSource.close();
+            this.gameEventSource = null;
         }
     }
 
@@ -204,9 +193,11 @@ class GameUI {
             .join('');
     }
 
-    startLeaderboardPolling() {
-        this.updateLeaderboard();  // Initial update
-        this.leaderboardPollingInterval = setInterval(() => this.updateLeaderboard(), 5000);
+    startLeaderboardStream() {
+        // The server pushes the leaderboard, starting with the current one, each time the top players change
+        this.leaderboardEventSource = new EventSource('/game/leaderboard/stream');
+        this.leaderboardEventSource.onmessage = (event) => this.updateLeaderboardUI(JSON.parse(event.data));
+        this.leaderboardEventSource.onerror = (error) => console.error('Error in leaderboard stream:', error);
     }
 
     startNewGame() {
@@ -219,12 +210,9 @@ class GameUI {
         const joinButton = document.getElementById('join-lobby-btn');
         joinButton.disabled = false;
         joinButton.classList.remove('hidden');
-        // Clear game ID and intervals
+        // Clear game ID and close the game state stream
         this.gameId = '';
-        if (this.gamePollingInterval) {
-            clearInterval(this.gamePollingInterval);
-            this.gamePollingInterval = null;
-        }
+        this.stopGameStream();
     }
 }
 
@@ -0,0 +1,64 @@
+package io.akka.sample.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointMetricsTest {
+
+    @Test
+    public void testRecordsLatencyAndErrors() {
+        var metrics = new EndpointMetrics();
+
+        metrics.record("GET /game/{gameId}", () -> CompletableFuture.completedFuture("ok"));
+        metrics.record("GET /game/{gameId}", () ->
+            CompletableFuture.failedFuture(new IllegalArgumentException("No game found for id 'game1'")));
+        assertThrows(IllegalArgumentException.class, () ->
+            metrics.record("POST /game/{gameId}/move", () -> {
+                throw new IllegalArgumentException("No enum constant ROCKET");
+            }));
+
+        var out = new StringBuilder();
+        metrics.writePrometheus(out);
+        String text = out.toString();
+
+        assertTrue(text.contains("http_request_duration_seconds_count{route=\"GET /game/{gameId}\"} 2\n"));
+        assertTrue(text.contains("http_request_duration_seconds_count{route=\"POST /game/{gameId}/move\"} 1\n"));
+        assertTrue(text.contains("http_request_duration_seconds{route=\"GET /game/{gameId}\",quantile=\"0.99\"} "));
+        assertTrue(text.contains("http_request_errors_total{route=\"GET /game/{gameId}\",category=\"not_found\"} 1\n"));
+        assertTrue(text.contains(
+            "http_request_errors_total{route=\"POST /game/{gameId}/move\",category=\"bad_request\"} 1\n"));
+    }
+
+    @Test
+    public void testErrorCategory() {
+        assertEquals("invalid_move_order", EndpointMetrics.errorCategory(new CompletionException(
+            new IllegalArgumentException("Invalid move order: a player cannot have more than one move more"))));
+        assertEquals("game_already_started",
+            EndpointMetrics.errorCategory(new RuntimeException("Game already started id 'game1'")));
+        assertEquals("game_over",
+            EndpointMetrics.errorCategory(new RuntimeException("Game is over id 'game1'")));
+        assertEquals("not_found",
+            EndpointMetrics.errorCategory(new RuntimeException("Player not found for id 'player1'")));
+        assertEquals("internal", EndpointMetrics.errorCategory(new RuntimeException("boom")));
+    }
+
+    @Test
+    public void testLatencyHistogramQuantiles() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(500_500_000L, histogram.sum());
+        // within the 1/32 width of the buckets
+        assertEquals(500_000, histogram.quantile(0.5), 500_000 / 32.0);
+        assertEquals(990_000, histogram.quantile(0.99), 990_000 / 32.0);
+        assertEquals(1_000_000, histogram.quantile(1.0), 1_000_000 / 32.0);
+        assertEquals(0, new LatencyHistogram().quantile(0.5));
+    }
+}
@@ -0,0 +1,26 @@
+package io.akka.sample.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityTagsTest {
+
+    @Test
+    public void testSequenceNumberOfTag() {
+        assertEquals("\"42\"", EntityTags.of(42));
+        assertEquals(OptionalLong.of(42), EntityTags.sequenceNumber(EntityTags.of(42)));
+        assertEquals(OptionalLong.of(42), EntityTags.sequenceNumber("W/\"42\""));
+        assertEquals(OptionalLong.of(7), EntityTags.sequenceNumber("\"abc\", \"7\", \"8\""));
+    }
+
+    @Test
+    public void testNoSequenceNumber() {
+        assertTrue(EntityTags.sequenceNumber("*").isEmpty());
+        assertTrue(EntityTags.sequenceNumber("\"\"").isEmpty());
+        assertTrue(EntityTags.sequenceNumber("42").isEmpty());
+        assertTrue(EntityTags.sequenceNumber("").isEmpty());
+    }
+}
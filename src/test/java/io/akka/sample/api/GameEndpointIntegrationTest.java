@@ -9,6 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,37 +51,37 @@ public class GameEndpointIntegrationTest extends TestKitSupport {
         JsonNode joinLobbyJson = objectMapper.readTree(joinLobbyResponseBody);
         String gameId = joinLobbyJson.get("gameId").asText();
 
-        // Wait for the game to start
-        Awaitility.await()
-            .atMost(5, TimeUnit.SECONDS)
-            .ignoreExceptions()
-            .untilAsserted(() -> {
-                assertEquals(StatusCodes.OK, await(httpClient.GET("/game/" + gameId).invokeAsync()).status());
-            });
+        // The game is started before the join replies
+        assertEquals(StatusCodes.OK, await(httpClient.GET("/game/" + gameId).invokeAsync()).status());
 
-        // Make moves until there is a winner
+        // Make moves until there is a winner, each move replying with the game state
+        JsonNode gameStateJson = null;
         for (int i = 0; i < 2; i++) {
             var move1Request = new GameEndpoint.MakeMoveRequest("player1", "ROCK");
             var move1Response = await(httpClient.POST("/game/" + gameId + "/move")
                 .withRequestBody(move1Request).invokeAsync());
             assertEquals(StatusCodes.OK, move1Response.status());
+            JsonNode afterMove1 = objectMapper.readTree(move1Response.body().utf8String());
+            assertEquals(i, afterMove1.get("completedRounds").asInt());
+            assertEquals(i + 1, afterMove1.get("firstPlayerMoveCount").asInt());
 
             var move2Request = new GameEndpoint.MakeMoveRequest("player2", "SCISSORS");
             var move2Response = await(httpClient.POST("/game/" + gameId + "/move")
                 .withRequestBody(move2Request).invokeAsync());
             assertEquals(StatusCodes.OK, move2Response.status());
+            gameStateJson = objectMapper.readTree(move2Response.body().utf8String());
+            assertEquals(i + 1, gameStateJson.get("completedRounds").asInt());
         }
 
-        // Get game state and verify winner
-        var gameStateResponse = await(httpClient.GET("/game/" + gameId).invokeAsync());
-        assertEquals(StatusCodes.OK, gameStateResponse.status());
-
-        // Parse the response body to check for the winner
-        String responseBody = gameStateResponse.body().utf8String();
-        JsonNode gameStateJson = objectMapper.readTree(responseBody);
+        // The state after the last move has the winner
         String winnerId = gameStateJson.get("winnerId").asText();
         assertEquals("player1", winnerId);
 
+        // and so does the game state
+        var gameStateResponse = await(httpClient.GET("/game/" + gameId).invokeAsync());
+        assertEquals(StatusCodes.OK, gameStateResponse.status());
+        assertEquals("player1", objectMapper.readTree(gameStateResponse.body().utf8String()).get("winnerId").asText());
+
         // Verify leaderboard is updated
         // FIXME need SDK/runtime update for KVE
         /*
@@ -126,4 +129,180 @@ public class GameEndpointIntegrationTest extends TestKitSupport {
 
         logger.info("Game completed and leaderboard verified");
     }
+
+    @Test
+    public void testMatchmakingQueue() throws Exception {
+        for (int i = 1; i <= 4; i++) {
+            var createPlayerResponse = await(httpClient.POST("/game/player")
+                .withRequestBody(new GameEndpoint.CreatePlayerRequest("queued" + i, "Queued " + i)).invokeAsync());
+            assertEquals(StatusCodes.CREATED, createPlayerResponse.status());
+
+            var joinResponse = await(httpClient.POST("/game/matchmaking/queue1/join")
+                .withRequestBody(new GameEndpoint.JoinQueueRequest("queued" + i)).invokeAsync());
+            assertEquals(StatusCodes.OK, joinResponse.status());
+        }
+
+        // Every player is matched, and the game is started before it is given to the players
+        for (int i = 1; i <= 4; i++) {
+            String playerId = "queued" + i;
+            Awaitility.await()
+                .atMost(5, TimeUnit.SECONDS)
+                .ignoreExceptions()
+                .untilAsserted(() -> {
+                    var matchResponse = await(httpClient.GET("/game/matchmaking/queue1/player/" + playerId).invokeAsync());
+                    JsonNode matchJson = objectMapper.readTree(matchResponse.body().utf8String());
+                    String gameId = matchJson.get("gameId").asText();
+                    assertEquals(StatusCodes.OK, await(httpClient.GET("/game/" + gameId).invokeAsync()).status());
+                });
+        }
+
+        var statsResponse = await(httpClient.GET("/game/matchmaking/queue1/stats").invokeAsync());
+        JsonNode statsJson = objectMapper.readTree(statsResponse.body().utf8String());
+        assertEquals(0, statsJson.get("waitingPlayers").asInt());
+        assertEquals(4, statsJson.get("matchedPlayers").asInt());
+    }
+
+    @Test
+    public void testMakeMoves() throws Exception {
+        for (String playerId : new String[]{"bot1", "bot2", "bot3", "bot4"}) {
+            await(httpClient.POST("/game/player")
+                .withRequestBody(new GameEndpoint.CreatePlayerRequest(playerId, playerId)).invokeAsync());
+        }
+        String game1 = joinLobby("bots1", "bot1", "bot2");
+        String game2 = joinLobby("bots2", "bot3", "bot4");
+
+        var request = new GameEndpoint.MakeMovesRequest(List.of(
+            new GameEndpoint.GameMoves(game1, List.of(
+                new GameEndpoint.MakeMoveRequest("bot1", "ROCK"),
+                new GameEndpoint.MakeMoveRequest("bot2", "SCISSORS"),
+                new GameEndpoint.MakeMoveRequest("bot1", "ROCK"),
+                new GameEndpoint.MakeMoveRequest("bot2", "SCISSORS"))),
+            new GameEndpoint.GameMoves(game2, List.of(
+                new GameEndpoint.MakeMoveRequest("bot3", "ROCK"),
+                new GameEndpoint.MakeMoveRequest("bot3", "PAPER")))));
+        var response = await(httpClient.POST("/game/moves").withRequestBody(request).invokeAsync());
+        assertEquals(StatusCodes.OK, response.status());
+
+        JsonNode results = objectMapper.readTree(response.body().utf8String()).get("games");
+        assertEquals(game1, results.get(0).get("gameId").asText());
+        assertFalse(results.get(0).hasNonNull("error"));
+        assertTrue(results.get(1).get("error").asText().startsWith("Invalid move order"));
+
+        var game1Response = await(httpClient.GET("/game/" + game1).invokeAsync());
+        assertEquals("bot1", objectMapper.readTree(game1Response.body().utf8String()).get("winnerId").asText());
+        var game2Response = await(httpClient.GET("/game/" + game2).invokeAsync());
+        JsonNode game2State = objectMapper.readTree(game2Response.body().utf8String());
+        assertEquals(0, game2State.get("firstPlayerMoveCount").asInt());
+    }
+
+    @Test
+    public void testConditionalGameState() throws Exception {
+        for (String playerId : new String[]{"etag1", "etag2"}) {
+            await(httpClient.POST("/game/player")
+                .withRequestBody(new GameEndpoint.CreatePlayerRequest(playerId, playerId)).invokeAsync());
+        }
+        String gameId = joinLobby("etag", "etag1", "etag2");
+
+        var response = await(httpClient.GET("/game/" + gameId).invokeAsync());
+        assertEquals(StatusCodes.OK, response.status());
+        String etag = response.httpResponse().getHeader("ETag").orElseThrow().value();
+        assertEquals("no-cache", response.httpResponse().getHeader("Cache-Control").orElseThrow().value());
+
+        var notModified = await(httpClient.GET("/game/" + gameId).addHeader("If-None-Match", etag).invokeAsync());
+        assertEquals(StatusCodes.NOT_MODIFIED, notModified.status());
+        assertEquals(etag, notModified.httpResponse().getHeader("ETag").orElseThrow().value());
+
+        var moves = new GameEndpoint.MakeMovesRequest(List.of(new GameEndpoint.GameMoves(gameId, List.of(
+            new GameEndpoint.MakeMoveRequest("etag1", "ROCK"),
+            new GameEndpoint.MakeMoveRequest("etag2", "SCISSORS"),
+            new GameEndpoint.MakeMoveRequest("etag1", "ROCK"),
+            new GameEndpoint.MakeMoveRequest("etag2", "SCISSORS")))));
+        await(httpClient.POST("/game/moves").withRequestBody(moves).invokeAsync());
+
+        var finished = await(httpClient.GET("/game/" + gameId).addHeader("If-None-Match", etag).invokeAsync());
+        assertEquals(StatusCodes.OK, finished.status());
+        assertNotEquals(etag, finished.httpResponse().getHeader("ETag").orElseThrow().value());
+        assertTrue(finished.httpResponse().getHeader("Cache-Control").orElseThrow().value().contains("immutable"));
+        assertEquals("etag1", objectMapper.readTree(finished.body().utf8String()).get("winnerId").asText());
+    }
+
+    @Test
+    public void testGameStateSinceRound() throws Exception {
+        for (String playerId : new String[]{"delta1", "delta2"}) {
+            await(httpClient.POST("/game/player")
+                .withRequestBody(new GameEndpoint.CreatePlayerRequest(playerId, playerId)).invokeAsync());
+        }
+        String gameId = joinLobby("delta", "delta1", "delta2");
+        var moves = new GameEndpoint.MakeMovesRequest(List.of(new GameEndpoint.GameMoves(gameId, List.of(
+            new GameEndpoint.MakeMoveRequest("delta1", "ROCK"),
+            new GameEndpoint.MakeMoveRequest("delta2", "ROCK"),
+            new GameEndpoint.MakeMoveRequest("delta1", "PAPER"),
+            new GameEndpoint.MakeMoveRequest("delta2", "ROCK"),
+            new GameEndpoint.MakeMoveRequest("delta1", "SCISSORS")))));
+        await(httpClient.POST("/game/moves").withRequestBody(moves).invokeAsync());
+
+        var response = await(httpClient.GET("/game/" + gameId + "?sinceRound=1").invokeAsync());
+        assertEquals(StatusCodes.OK, response.status());
+        JsonNode delta = objectMapper.readTree(response.body().utf8String());
+        assertEquals(2, delta.get("completedRounds").asInt());
+        assertEquals(1, delta.get("firstPlayerMoves").size());
+        assertEquals("PAPER", delta.get("firstPlayerMoves").get(0).asText());
+        assertEquals("ROCK", delta.get("secondPlayerMoves").get(0).asText());
+        assertEquals(1, delta.get("firstPlayerScore").asInt());
+        assertEquals(3, delta.get("firstPlayerMoveCount").asInt());
+
+        var moveResponse = await(httpClient.POST("/game/" + gameId + "/move?sinceRound=2")
+            .withRequestBody(new GameEndpoint.MakeMoveRequest("delta2", "PAPER")).invokeAsync());
+        JsonNode afterMove = objectMapper.readTree(moveResponse.body().utf8String());
+        assertEquals(3, afterMove.get("completedRounds").asInt());
+        assertEquals("SCISSORS", afterMove.get("firstPlayerMoves").get(0).asText());
+        assertEquals(1, afterMove.get("secondPlayerMoves").size());
+        assertEquals("delta1", afterMove.get("winnerId").asText());
+
+        var upToDate = await(httpClient.GET("/game/" + gameId + "?sinceRound=3").invokeAsync());
+        assertEquals(0, objectMapper.readTree(upToDate.body().utf8String()).get("firstPlayerMoves").size());
+    }
+
+    @Test
+    public void testPlayerGames() throws Exception {
+        for (String playerId : new String[]{"history-a", "history-b"}) {
+            await(httpClient.POST("/game/player")
+                .withRequestBody(new GameEndpoint.CreatePlayerRequest(playerId, playerId)).invokeAsync());
+        }
+        for (int i = 0; i < 2; i++) {
+            String gameId = joinLobby("history-" + i, "history-a", "history-b");
+            var moves = new GameEndpoint.MakeMovesRequest(List.of(new GameEndpoint.GameMoves(gameId, List.of(
+                new GameEndpoint.MakeMoveRequest("history-a", "ROCK"),
+                new GameEndpoint.MakeMoveRequest("history-b", "PAPER"),
+                new GameEndpoint.MakeMoveRequest("history-a", "ROCK"),
+                new GameEndpoint.MakeMoveRequest("history-b", "PAPER")))));
+            await(httpClient.POST("/game/moves").withRequestBody(moves).invokeAsync());
+        }
+
+        Awaitility.await()
+            .atMost(10, TimeUnit.SECONDS)
+            .ignoreExceptions()
+            .untilAsserted(() -> {
+                var response = await(httpClient.GET("/game/player/history-a/games?pageSize=1").invokeAsync());
+                JsonNode page = objectMapper.readTree(response.body().utf8String());
+                assertEquals(1, page.get("games").size());
+                assertEquals("history-b", page.get("games").get(0).get("opponentId").asText());
+                assertFalse(page.get("games").get(0).get("won").asBoolean());
+
+                String pageToken = page.get("nextPageToken").asText();
+                var nextResponse = await(httpClient.GET("/game/player/history-a/games?pageSize=1&pageToken=" +
+                    URLEncoder.encode(pageToken, StandardCharsets.UTF_8)).invokeAsync());
+                JsonNode nextPage = objectMapper.readTree(nextResponse.body().utf8String());
+                assertEquals(1, nextPage.get("games").size());
+                assertFalse(nextPage.hasNonNull("nextPageToken"));
+            });
+    }
+
+    private String joinLobby(String lobbyId, String player1Id, String player2Id) throws Exception {
+        await(httpClient.POST("/game/lobby/" + lobbyId + "/join")
+            .withRequestBody(new GameEndpoint.JoinLobbyRequest(player1Id)).invokeAsync());
+        var response = await(httpClient.POST("/game/lobby/" + lobbyId + "/join")
+            .withRequestBody(new GameEndpoint.JoinLobbyRequest(player2Id)).invokeAsync());
+        return objectMapper.readTree(response.body().utf8String()).get("gameId").asText();
+    }
 }
@@ -0,0 +1,115 @@
+package io.akka.sample.api;
+
+import io.akka.sample.application.LeaderboardView.Leaderboard;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardCacheTest {
+
+    private final Leaderboard leaderboard = new Leaderboard(List.of());
+
+    @Test
+    public void testCachedWithinTtl() {
+        var queries = new AtomicInteger();
+        var cache = new LeaderboardCache(maxResults -> {
+            queries.incrementAndGet();
+            return CompletableFuture.completedFuture(leaderboard);
+        }, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        cache.getTopPlayers(10);
+        cache.getTopPlayers(10);
+        cache.getTopPlayers(10);
+        cache.getTopPlayers(5);
+
+        assertEquals(2, queries.get());
+        assertEquals(new LeaderboardCache.Stats(2, 2, 2), cache.stats());
+    }
+
+    @Test
+    public void testExpiredAfterTtl() {
+        var queries = new AtomicInteger();
+        var cache = new LeaderboardCache(maxResults -> {
+            queries.incrementAndGet();
+            return CompletableFuture.completedFuture(leaderboard);
+        }, Duration.ZERO, Duration.ofMinutes(1));
+
+        cache.getTopPlayers(10);
+        cache.getTopPlayers(10);
+
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void testConcurrentMissesShareQuery() {
+        var queries = new AtomicInteger();
+        var pending = new CompletableFuture<Leaderboard>();
+        var cache = new LeaderboardCache(maxResults -> {
+            queries.incrementAndGet();
+            return pending;
+        }, Duration.ZERO, Duration.ofMinutes(1));
+
+        CompletionStage<Leaderboard> first = cache.getTopPlayers(10);
+        CompletionStage<Leaderboard> second = cache.getTopPlayers(10);
+        assertEquals(1, queries.get());
+
+        pending.complete(leaderboard);
+        assertSame(leaderboard, first.toCompletableFuture().join());
+        assertSame(leaderboard, second.toCompletableFuture().join());
+    }
+
+    @Test
+    public void testFailureNotCached() {
+        var queries = new AtomicInteger();
+        var cache = new LeaderboardCache(maxResults -> {
+            if (queries.incrementAndGet() == 1) {
+                return CompletableFuture.failedFuture(new RuntimeException("view unavailable"));
+            }
+            return CompletableFuture.completedFuture(leaderboard);
+        }, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        assertTrue(cache.getTopPlayers(10).toCompletableFuture().isCompletedExceptionally());
+        assertSame(leaderboard, cache.getTopPlayers(10).toCompletableFuture().join());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void testThrowingQueryNotCached() {
+        var queries = new AtomicInteger();
+        var cache = new LeaderboardCache(maxResults -> {
+            if (queries.incrementAndGet() == 1) {
+                throw new IllegalStateException("no view client");
+            }
+            return CompletableFuture.completedFuture(leaderboard);
+        }, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        assertTrue(cache.getTopPlayers(10).toCompletableFuture().isCompletedExceptionally());
+        assertSame(leaderboard, cache.getTopPlayers(10).toCompletableFuture().join());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void testQueryTimesOut() {
+        var queries = new AtomicInteger();
+        var pending = new CompletableFuture<Leaderboard>();
+        var cache = new LeaderboardCache(maxResults -> {
+            if (queries.incrementAndGet() == 1) {
+                return pending;
+            }
+            return CompletableFuture.completedFuture(leaderboard);
+        }, Duration.ofMinutes(1), Duration.ofMillis(10));
+
+        CompletableFuture<Leaderboard> first = cache.getTopPlayers(10).toCompletableFuture();
+        assertThrows(CompletionException.class, first::join);
+        assertFalse(pending.isDone());
+        assertSame(leaderboard, cache.getTopPlayers(10).toCompletableFuture().join());
+        assertEquals(2, queries.get());
+    }
+}
@@ -0,0 +1,60 @@
+package io.akka.sample.api;
+
+import io.akka.sample.application.LeaderboardView.Leaderboard;
+import io.akka.sample.application.LeaderboardView.PlayerStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardRankingTest {
+
+    private static PlayerStats stats(String playerId, double score) {
+        return new PlayerStats(playerId, playerId, 0, 0, score);
+    }
+
+    @Test
+    public void testKeepsTopPlayersAndMargin() {
+        var ranking = new LeaderboardRanking(2, 1);
+        for (int i = 0; i < 10; i++) {
+            ranking.update(stats("p" + i, i));
+        }
+
+        assertEquals(3, ranking.players());
+        assertEquals(Optional.of(new Leaderboard(List.of(stats("p9", 10), stats("p8", 8)))),
+            ranking.update(stats("p9", 10)));
+    }
+
+    @Test
+    public void testOnlyChangesAreReturned() {
+        var ranking = new LeaderboardRanking(2, 1);
+        assertTrue(ranking.update(stats("a", 5)).isPresent());
+        assertTrue(ranking.update(stats("b", 4)).isPresent());
+        assertEquals(Optional.empty(), ranking.update(stats("c", 1)));
+        assertEquals(Optional.empty(), ranking.update(stats("b", 4)));
+    }
+
+    @Test
+    public void testDroppedPlayerComesBackWithUpdate() {
+        var ranking = new LeaderboardRanking(1, 1);
+        ranking.update(stats("a", 5));
+        ranking.update(stats("b", 4));
+        ranking.update(stats("c", 3));
+
+        assertEquals(Optional.of(new Leaderboard(List.of(stats("c", 6)))), ranking.update(stats("c", 6)));
+    }
+
+    @Test
+    public void testFailsWhenTopPlayersAreNoLongerKnown() {
+        var ranking = new LeaderboardRanking(1, 1);
+        ranking.update(stats("a", 5));
+        ranking.update(stats("b", 4));
+        ranking.update(stats("c", 3));
+
+        // one player dropping below the dropped player is covered by the margin
+        ranking.update(stats("a", 1));
+        assertThrows(IllegalStateException.class, () -> ranking.update(stats("b", 2)));
+    }
+}
@@ -0,0 +1,60 @@
+package io.akka.sample.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LobbyShardsTest {
+
+    @Test
+    public void testSingleShard() {
+        var shards = new LobbyShards(1);
+        assertEquals("lobby1", shards.nextShard("lobby1"));
+        assertEquals("lobby1", shards.nextShard("lobby1"));
+    }
+
+    @Test
+    public void testConsecutiveJoinsPairedInSameShard() {
+        var shards = new LobbyShards(3);
+        assertEquals("lobby1-shard-0", shards.nextShard("lobby1"));
+        assertEquals("lobby1-shard-0", shards.nextShard("lobby1"));
+        assertEquals("lobby1-shard-1", shards.nextShard("lobby1"));
+        assertEquals("lobby1-shard-1", shards.nextShard("lobby1"));
+        assertEquals("lobby1-shard-2", shards.nextShard("lobby1"));
+        assertEquals("lobby1-shard-2", shards.nextShard("lobby1"));
+        assertEquals("lobby1-shard-0", shards.nextShard("lobby1"));
+    }
+
+    @Test
+    public void testLobbiesHaveTheirOwnTurn() {
+        var shards = new LobbyShards(2);
+        assertEquals("lobby1-shard-0", shards.nextShard("lobby1"));
+        assertEquals("lobby2-shard-0", shards.nextShard("lobby2"));
+        assertEquals("lobby1-shard-0", shards.nextShard("lobby1"));
+        assertEquals("lobby2-shard-0", shards.nextShard("lobby2"));
+        assertEquals("lobby1-shard-1", shards.nextShard("lobby1"));
+    }
+
+    @Test
+    public void testShardIds() {
+        assertEquals(List.of("lobby1"), new LobbyShards(1).shardIds("lobby1"));
+        assertEquals(List.of("lobby1-shard-0", "lobby1-shard-1"), new LobbyShards(2).shardIds("lobby1"));
+    }
+
+    @Test
+    public void testLowerShards() {
+        var shards = new LobbyShards(5);
+        assertEquals(List.of(), shards.lowerShards("lobby1", "lobby1-shard-0"));
+        assertEquals(List.of("lobby1-shard-0", "lobby1-shard-1"), shards.lowerShards("lobby1", "lobby1-shard-2"));
+        for (int i = 0; i < 100; i++) {
+            var probed = shards.lowerShards("lobby1", "lobby1-shard-4");
+            assertEquals(2, probed.size());
+            assertTrue(probed.get(0).compareTo(probed.get(1)) < 0);
+            assertFalse(probed.contains("lobby1-shard-4"));
+        }
+    }
+}
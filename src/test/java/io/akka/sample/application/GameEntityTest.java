@@ -2,8 +2,10 @@ package io.akka.sample.application;
 
 import akka.Done;
 import akka.javasdk.testkit.EventSourcedTestKit;
+import io.akka.sample.application.GameEntity.CancelGameRequest;
 import io.akka.sample.application.GameEntity.CreateGameRequest;
 import io.akka.sample.application.GameEntity.MoveRequest;
+import io.akka.sample.application.GameEntity.MoveRequests;
 import io.akka.sample.application.GameEntity.PlayerIds;
 import io.akka.sample.domain.Game;
 import io.akka.sample.domain.GameEvent;
@@ -12,6 +14,8 @@ import io.akka.sample.domain.Game.Move;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GameEntityTest {
@@ -59,6 +63,28 @@ public class GameEntityTest {
         assertTrue(result.isError());
     }
 
+    @Test
+    public void testCancelGame() {
+        testKit.call(entity -> entity.createGame(new CreateGameRequest("player1")));
+
+        var result = testKit.call(entity -> entity.cancelGame(new CancelGameRequest("player1")));
+        assertEquals(Done.getInstance(), result.getReply());
+        assertEquals("player1", result.getNextEventOfType(GameCancelled.class).player1Id());
+
+        // creating the game again, from an earlier lobby state, doesn't bring it back
+        var created = testKit.call(entity -> entity.createGame(new CreateGameRequest("player1")));
+        assertEquals(Done.getInstance(), created.getReply());
+        assertFalse(created.didPersistEvents());
+        assertFalse(testKit.call(entity -> entity.cancelGame(new CancelGameRequest("player1"))).didPersistEvents());
+    }
+
+    @Test
+    public void testCancelStartedGameFails() {
+        testKit.call(entity -> entity.startGame(new PlayerIds("player1", "player2")));
+
+        assertTrue(testKit.call(entity -> entity.cancelGame(new CancelGameRequest("player1"))).isError());
+    }
+
     @Test
     public void testStartGameAfterCreation() {
         var player1Id = "player1";
@@ -124,16 +150,60 @@ public class GameEntityTest {
         }
 
         var result = testKit.call(entity -> entity.makeMove(new MoveRequest(player1Id, Move.ROCK)));
-        assertEquals(Done.getInstance(), result.getReply());
+        assertEquals(Game.Result.PLAYER_ONE_WINS, result.getReply().evaluateWinner());
+        assertEquals(3, result.getReply().getFirstPlayerMoves().size());
 
-        var moveMadeEvent = result.getNextEventOfType(MoveMade.class);
-        assertEquals(player1Id, moveMadeEvent.playerId());
+        var moveMadeEvent = result.getNextEventOfType(CompactMoveMade.class);
+        assertEquals(0, moveMadeEvent.playerIndex());
         assertEquals(Move.ROCK, moveMadeEvent.move());
 
         var gameOverEvent = result.getNextEventOfType(GameOver.class);
         assertEquals(player1Id, gameOverEvent.winnerId());
     }
 
+    @Test
+    public void testNoMovesAfterGameOver() {
+        testKit.call(entity -> entity.startGame(new PlayerIds("player1", "player2")));
+        testKit.call(entity -> entity.makeMoves(new MoveRequests(List.of(
+            new MoveRequest("player1", Move.ROCK),
+            new MoveRequest("player2", Move.SCISSORS),
+            new MoveRequest("player1", Move.ROCK),
+            new MoveRequest("player2", Move.SCISSORS)))));
+
+        var result = testKit.call(entity -> entity.makeMove(new MoveRequest("player1", Move.ROCK)));
+        assertTrue(result.isError());
+        assertTrue(result.getError().startsWith("Game is over"));
+
+        var movesResult = testKit.call(entity -> entity.makeMoves(new MoveRequests(List.of(
+            new MoveRequest("player1", Move.ROCK)))));
+        assertTrue(movesResult.isError());
+    }
+
+    @Test
+    public void testGetStateIfChanged() {
+        testKit.call(entity -> entity.startGame(new PlayerIds("player1", "player2")));
+
+        var version = testKit.call(entity -> entity.getStateIfChanged(-1)).getReply();
+        assertTrue(version.game().isPresent());
+        assertFalse(version.gameOver());
+
+        long sequenceNumber = version.sequenceNumber();
+        var unchanged = testKit.call(entity -> entity.getStateIfChanged(sequenceNumber)).getReply();
+        assertEquals(sequenceNumber, unchanged.sequenceNumber());
+        assertTrue(unchanged.game().isEmpty());
+
+        testKit.call(entity -> entity.makeMoves(new MoveRequests(List.of(
+            new MoveRequest("player1", Move.ROCK),
+            new MoveRequest("player2", Move.SCISSORS),
+            new MoveRequest("player1", Move.ROCK),
+            new MoveRequest("player2", Move.SCISSORS)))));
+
+        var finished = testKit.call(entity -> entity.getStateIfChanged(sequenceNumber)).getReply();
+        assertTrue(finished.sequenceNumber() > sequenceNumber);
+        assertTrue(finished.gameOver());
+        assertEquals(Game.Result.PLAYER_ONE_WINS, finished.game().orElseThrow().evaluateWinner());
+    }
+
     @Test
     public void testErrorSamePlayers() {
         var playerId = "player1";
@@ -157,4 +227,62 @@ public class GameEntityTest {
         assertTrue(result.isError());
         assertEquals("Invalid move order: a player cannot have more than one move more than the other player.", result.getError());
     }
+
+    @Test
+    public void testMoveOfOtherPlayer() {
+        testKit.call(entity -> entity.startGame(new PlayerIds("player1", "player2")));
+
+        var result = testKit.call(entity -> entity.makeMove(new MoveRequest("player3", Move.ROCK)));
+
+        assertTrue(result.isError());
+        assertTrue(result.getError().startsWith("Player 'player3' is not a player in game"));
+    }
+
+    @Test
+    public void testApplyLegacyAndCompactMoves() {
+        var game = GameEntity.applyEvent(null, new GameStarted("player1", "player2"));
+        game = GameEntity.applyEvent(game, new MoveMade("player1", Move.ROCK));
+        game = GameEntity.applyEvent(game, new CompactMoveMade(1, Move.SCISSORS));
+
+        assertEquals(List.of(Move.ROCK), game.getFirstPlayerMoves());
+        assertEquals(List.of(Move.SCISSORS), game.getSecondPlayerMoves());
+        assertEquals(1, game.getFirstPlayerScore());
+    }
+
+    @Test
+    public void testMakeMovesUntilGameOver() {
+        testKit.call(entity -> entity.startGame(new PlayerIds("player1", "player2")));
+
+        var result = testKit.call(entity -> entity.makeMoves(new MoveRequests(List.of(
+            new MoveRequest("player1", Move.ROCK),
+            new MoveRequest("player2", Move.ROCK),
+            new MoveRequest("player1", Move.PAPER),
+            new MoveRequest("player2", Move.ROCK),
+            new MoveRequest("player2", Move.SCISSORS),
+            new MoveRequest("player1", Move.ROCK)))));
+
+        assertEquals(Done.getInstance(), result.getReply());
+        assertEquals(7, result.getAllEvents().size());
+        var gameOverEvent = (GameOver) result.getAllEvents().get(6);
+        assertEquals("player1", gameOverEvent.winnerId());
+        assertEquals(Game.Result.PLAYER_ONE_WINS, testKit.getState().evaluateWinner());
+        assertEquals(3, testKit.getState().completedRounds());
+    }
+
+    @Test
+    public void testMakeMovesInvalidMoveOrder() {
+        testKit.call(entity -> entity.startGame(new PlayerIds("player1", "player2")));
+
+        var result = testKit.call(entity -> entity.makeMoves(new MoveRequests(List.of(
+            new MoveRequest("player1", Move.ROCK),
+            new MoveRequest("player2", Move.ROCK),
+            new MoveRequest("player1", Move.PAPER),
+            new MoveRequest("player1", Move.ROCK)))));
+
+        assertTrue(result.isError());
+        assertEquals(
+            "Invalid move order: a player cannot have more than one move more than the other player.",
+            result.getError());
+        assertEquals(0, testKit.getState().getFirstPlayerMoves().size());
+    }
 }
@@ -0,0 +1,76 @@
+package io.akka.sample.application;
+
+import akka.javasdk.testkit.EventingTestKit.IncomingMessages;
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import io.akka.sample.domain.Game;
+import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.GameEvent;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameHistoryViewIntegrationTest extends TestKitSupport {
+
+  private IncomingMessages gameEvents;
+
+  @Override
+  protected TestKit.Settings testKitSettings() {
+    return TestKit.Settings.DEFAULT
+        .withEventSourcedEntityIncomingMessages("game");
+  }
+
+  @BeforeEach
+  public void setup() {
+    gameEvents = testKit.getEventSourcedEntityIncomingMessages("game");
+  }
+
+  private List<GameHistoryView.GameRecord> games(String gameId) {
+    return await(componentClient.forView()
+        .method(GameHistoryView::getGame)
+        .invokeAsync(gameId)).games();
+  }
+
+  @Test
+  public void testFinishedGameFromEvents() {
+    gameEvents.publish(new GameEvent.GameCreated("player1"), "game-history-1");
+    gameEvents.publish(new GameEvent.GameStarted("player1", "player2"), "game-history-1");
+    gameEvents.publish(new GameEvent.MoveMade("player1", Move.ROCK), "game-history-1");
+    gameEvents.publish(new GameEvent.CompactMoveMade(1, Move.SCISSORS), "game-history-1");
+
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .ignoreExceptions()
+        .untilAsserted(() -> {
+          var game = games("game-history-1").get(0);
+          assertFalse(game.finished());
+          assertEquals(4, game.sequenceNumber());
+        });
+
+    gameEvents.publish(new GameEvent.CompactMoveMade(0, Move.PAPER), "game-history-1");
+    gameEvents.publish(new GameEvent.CompactMoveMade(1, Move.ROCK), "game-history-1");
+    gameEvents.publish(new GameEvent.GameOver("player1", "player2"), "game-history-1");
+
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .ignoreExceptions()
+        .untilAsserted(() -> {
+          var record = games("game-history-1").get(0);
+          assertTrue(record.finished());
+          assertEquals(7, record.sequenceNumber());
+          assertEquals("RP", record.firstPlayerMoves());
+
+          Game game = record.toGame();
+          assertEquals(Game.Result.PLAYER_ONE_WINS, game.evaluateWinner());
+          assertEquals(List.of(Move.SCISSORS, Move.ROCK), game.getSecondPlayerMoves());
+          assertEquals(2, game.getFirstPlayerScore());
+        });
+
+    assertTrue(games("game-history-unknown").isEmpty());
+  }
+}
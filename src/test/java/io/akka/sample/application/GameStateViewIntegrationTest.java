@@ -0,0 +1,75 @@
+package io.akka.sample.application;
+
+import akka.javasdk.testkit.EventingTestKit.IncomingMessages;
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import akka.stream.javadsl.Sink;
+import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.GameEvent;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateViewIntegrationTest extends TestKitSupport {
+
+  private IncomingMessages gameEvents;
+
+  @Override
+  protected TestKit.Settings testKitSettings() {
+    return TestKit.Settings.DEFAULT
+        .withEventSourcedEntityIncomingMessages("game");
+  }
+
+  @BeforeEach
+  public void setup() {
+    gameEvents = testKit.getEventSourcedEntityIncomingMessages("game");
+  }
+
+  private GameStateView.GameState latestState(String gameId) {
+    return await(componentClient.forView()
+        .stream(GameStateView::streamGameState)
+        .source(gameId)
+        .runWith(Sink.head(), testKit.getMaterializer()));
+  }
+
+  @Test
+  public void testGameStateFromEvents() {
+    gameEvents.publish(new GameEvent.GameCreated("player1"), "game-state-1");
+    gameEvents.publish(new GameEvent.GameStarted("player1", "player2"), "game-state-1");
+    gameEvents.publish(new GameEvent.MoveMade("player1", Move.ROCK), "game-state-1");
+    gameEvents.publish(new GameEvent.MoveMade("player2", Move.SCISSORS), "game-state-1");
+    gameEvents.publish(new GameEvent.MoveMade("player1", Move.PAPER), "game-state-1");
+
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .ignoreExceptions()
+        .untilAsserted(() -> {
+          var state = latestState("game-state-1");
+          assertEquals("player1", state.firstPlayerId());
+          assertEquals("player2", state.secondPlayerId());
+          assertEquals("RP", state.firstPlayerMoves());
+          assertEquals("S", state.secondPlayerMoves());
+          assertEquals(List.of("ROCK", "PAPER"), state.firstPlayerMoveNames());
+          assertEquals(1, state.firstPlayerScore());
+          assertEquals(0, state.secondPlayerScore());
+          assertNull(state.winnerId());
+        });
+
+    gameEvents.publish(new GameEvent.MoveMade("player2", Move.ROCK), "game-state-1");
+    gameEvents.publish(new GameEvent.GameOver("player1", "player2"), "game-state-1");
+
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .ignoreExceptions()
+        .untilAsserted(() -> {
+          var state = latestState("game-state-1");
+          assertEquals(2, state.firstPlayerScore());
+          assertEquals("player1", state.winnerId());
+        });
+  }
+}
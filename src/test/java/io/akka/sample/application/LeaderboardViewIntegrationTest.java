@@ -3,6 +3,7 @@ package io.akka.sample.application;
 import akka.javasdk.testkit.TestKitSupport;
 import akka.javasdk.testkit.EventingTestKit.IncomingMessages;
 import akka.javasdk.testkit.TestKit;
+import akka.stream.javadsl.Sink;
 import io.akka.sample.domain.Player;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.BeforeEach;
@@ -146,4 +147,26 @@ public class LeaderboardViewIntegrationTest extends TestKitSupport {
           assertTrue(players.get(0).score() > players.get(1).score());
         });
   }
+
+  @Test
+  public void testStreamPlayerStats() {
+    var player = new Player("player7", "Grace").incrementWins("game21");
+    playerUpdates.publish(player, "player7");
+
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .ignoreExceptions()
+        .untilAsserted(() -> {
+          LeaderboardView.PlayerStats stats = await(
+              componentClient.forView()
+                  .stream(LeaderboardView::streamPlayerStats)
+                  .source()
+                  .filter(p -> p.playerId().equals("player7"))
+                  .runWith(Sink.head(), testKit.getMaterializer())
+          );
+
+          assertEquals("Grace", stats.playerName());
+          assertEquals(1, stats.gamesWon());
+        });
+  }
 }
@@ -64,4 +64,25 @@ public class LobbyEntityTest {
         assertEquals(Optional.of("player1"), state.player1Id());
         assertTrue(state.player2Id().isEmpty());
     }
+
+    @Test
+    public void testLeaveLobbyWhileWaiting() {
+        testKit.call(entity -> entity.joinLobby("player1"));
+        var gameId = testKit.getState().gameId();
+
+        assertEquals(Optional.of(gameId), testKit.call(entity -> entity.leaveLobby("player1")).getReply());
+
+        var state = testKit.getState();
+        assertTrue(state.player1Id().isEmpty());
+        assertNotEquals(gameId, state.gameId());
+    }
+
+    @Test
+    public void testLeaveLobbyAfterPaired() {
+        testKit.call(entity -> entity.joinLobby("player1"));
+        testKit.call(entity -> entity.joinLobby("player2"));
+
+        assertEquals(Optional.empty(), testKit.call(entity -> entity.leaveLobby("player1")).getReply());
+        assertEquals(Optional.of("player2"), testKit.getState().player2Id());
+    }
 }
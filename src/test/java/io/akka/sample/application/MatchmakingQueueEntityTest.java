@@ -0,0 +1,69 @@
+package io.akka.sample.application;
+
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import io.akka.sample.application.MatchmakingQueueEntity.JoinRequest;
+import io.akka.sample.application.MatchmakingQueueEntity.Matches;
+import io.akka.sample.domain.MatchmakingQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MatchmakingQueueEntityTest {
+
+    private KeyValueEntityTestKit<MatchmakingQueue, MatchmakingQueueEntity> testKit;
+
+    @BeforeEach
+    public void setup() {
+        testKit = KeyValueEntityTestKit.of("queue1", MatchmakingQueueEntity::new);
+    }
+
+    @Test
+    public void testJoin() {
+        var result = testKit.call(entity -> entity.join(new JoinRequest("player1", 1500)));
+
+        assertTrue(result.getReply().waiting());
+        assertTrue(testKit.getState().isWaiting("player1"));
+
+        var again = testKit.call(entity -> entity.join(new JoinRequest("player1", 1500)));
+        assertTrue(again.getReply().waiting());
+        assertFalse(again.stateWasUpdated());
+    }
+
+    @Test
+    public void testRecordMatches() {
+        testKit.call(entity -> entity.join(new JoinRequest("player1", 1500)));
+        testKit.call(entity -> entity.join(new JoinRequest("player2", 1500)));
+        testKit.call(entity -> entity.join(new JoinRequest("player3", 1500)));
+        var matches = List.copyOf(testKit.getState().pendingMatches());
+        assertEquals(1, matches.size());
+        assertTrue(testKit.call(entity -> entity.getMatch("player2")).getReply().waiting());
+
+        testKit.call(entity -> entity.recordMatches(new Matches(matches)));
+
+        assertFalse(testKit.call(entity -> entity.getMatch("player2")).getReply().waiting());
+        assertTrue(testKit.call(entity -> entity.getMatch("player3")).getReply().waiting());
+
+        var stats = testKit.call(MatchmakingQueueEntity::getStats).getReply();
+        assertEquals(1, stats.waitingPlayers());
+        assertEquals(2, stats.matchedPlayers());
+
+        var again = testKit.call(entity -> entity.recordMatches(new Matches(matches)));
+        assertFalse(again.stateWasUpdated());
+    }
+
+    @Test
+    public void testMatchWaiting() {
+        testKit.call(entity -> entity.join(new JoinRequest("player1", 1500)));
+        testKit.call(entity -> entity.join(new JoinRequest("player2", 2000)));
+
+        // the windows haven't grown enough yet, so the state isn't written
+        var result = testKit.call(MatchmakingQueueEntity::matchWaiting);
+        assertEquals(2, result.getReply());
+        assertFalse(result.stateWasUpdated());
+    }
+}
@@ -0,0 +1,93 @@
+package io.akka.sample.application;
+
+import akka.Done;
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import io.akka.sample.application.PlayerEntity.GameResults;
+import io.akka.sample.domain.Player;
+import io.akka.sample.domain.Player.GameResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlayerEntityTest {
+
+    private KeyValueEntityTestKit<Player, PlayerEntity> testKit;
+
+    @BeforeEach
+    public void setup() {
+        testKit = KeyValueEntityTestKit.of(PlayerEntity::new);
+        testKit.call(entity -> entity.createPlayer(new Player("player1", "Alice")));
+    }
+
+    @Test
+    public void testRecordGameResults() {
+        var results = new GameResults(List.of(
+            new GameResult("game1", true),
+            new GameResult("game2", false),
+            new GameResult("game3", true)));
+
+        var result = testKit.call(entity -> entity.recordGameResults(results));
+
+        assertEquals(Done.getInstance(), result.getReply());
+        assertEquals(2, testKit.getState().gamesWon());
+        assertEquals(1, testKit.getState().gamesLost());
+        assertTrue(testKit.getState().hasRecordedGame("game2"));
+    }
+
+    @Test
+    public void testRecordGameResultsIdempotent() {
+        testKit.call(entity -> entity.gameWon("game1"));
+
+        var results = new GameResults(List.of(
+            new GameResult("game1", true),
+            new GameResult("game2", false),
+            new GameResult("game2", false)));
+        testKit.call(entity -> entity.recordGameResults(results));
+
+        assertEquals(1, testKit.getState().gamesWon());
+        assertEquals(1, testKit.getState().gamesLost());
+
+        var result = testKit.call(entity -> entity.recordGameResults(results));
+        assertEquals(Done.getInstance(), result.getReply());
+        assertFalse(result.stateWasUpdated());
+    }
+
+    @Test
+    public void testRecordGameResultsForUnknownPlayer() {
+        var unknownPlayer = KeyValueEntityTestKit.of(PlayerEntity::new);
+
+        var result = unknownPlayer.call(entity -> entity.recordGameResults(
+            new GameResults(List.of(new GameResult("game1", true)))));
+
+        assertTrue(result.isError());
+    }
+
+    @Test
+    public void testUpdatePlayerNameKeepsState() {
+        testKit.call(entity -> entity.setGameHistoryCapacity(100));
+        testKit.call(entity -> entity.recordGameResults(new GameResults(List.of(new GameResult("game1", true, 1500)))));
+        var before = testKit.getState();
+
+        testKit.call(entity -> entity.updatePlayerName("Alicia"));
+
+        assertEquals("Alicia", testKit.getState().name());
+        assertEquals(1, testKit.getState().gamesWon());
+        assertEquals(before.rating(), testKit.getState().rating());
+        assertEquals(100, testKit.getState().gameHistoryCapacity());
+        assertTrue(testKit.getState().hasRecordedGame("game1"));
+    }
+
+    @Test
+    public void testSetGameHistoryCapacity() {
+        var result = testKit.call(entity -> entity.setGameHistoryCapacity(1000));
+
+        assertEquals(Done.getInstance(), result.getReply());
+        assertEquals(1000, testKit.getState().gameHistoryCapacity());
+        assertTrue(testKit.call(entity -> entity.setGameHistoryCapacity(0)).isError());
+    }
+}
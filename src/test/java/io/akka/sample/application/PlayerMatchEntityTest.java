@@ -0,0 +1,34 @@
+package io.akka.sample.application;
+
+import akka.javasdk.testkit.KeyValueEntityTestKit;
+import io.akka.sample.domain.MatchedGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class PlayerMatchEntityTest {
+
+    private KeyValueEntityTestKit<MatchedGame, PlayerMatchEntity> testKit;
+
+    @BeforeEach
+    public void setup() {
+        testKit = KeyValueEntityTestKit.of(PlayerMatchEntity.entityId("queue1", "player1"), PlayerMatchEntity::new);
+    }
+
+    @Test
+    public void testRecordMatch() {
+        assertEquals(Optional.empty(), testKit.call(PlayerMatchEntity::getGameId).getReply());
+
+        testKit.call(entity -> entity.recordMatch(new MatchedGame("game2", 2000)));
+        assertEquals(Optional.of("game2"), testKit.call(PlayerMatchEntity::getGameId).getReply());
+
+        // an earlier match recorded late doesn't replace the latest one
+        var result = testKit.call(entity -> entity.recordMatch(new MatchedGame("game1", 1000)));
+        assertFalse(result.stateWasUpdated());
+        assertEquals(Optional.of("game2"), testKit.call(PlayerMatchEntity::getGameId).getReply());
+    }
+}
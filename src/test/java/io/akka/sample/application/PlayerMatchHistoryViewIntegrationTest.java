@@ -0,0 +1,66 @@
+package io.akka.sample.application;
+
+import akka.javasdk.testkit.EventingTestKit.IncomingMessages;
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.GameEvent;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerMatchHistoryViewIntegrationTest extends TestKitSupport {
+
+  private IncomingMessages gameEvents;
+
+  @Override
+  protected TestKit.Settings testKitSettings() {
+    return TestKit.Settings.DEFAULT
+        .withEventSourcedEntityIncomingMessages("game");
+  }
+
+  @BeforeEach
+  public void setup() {
+    gameEvents = testKit.getEventSourcedEntityIncomingMessages("game");
+  }
+
+  private PlayerMatchHistoryView.MatchesPage page(String playerId, String pageToken, int pageSize) {
+    return await(componentClient.forView()
+        .method(PlayerMatchHistoryView::getMatches)
+        .invokeAsync(new PlayerMatchHistoryView.MatchesRequest(playerId, pageToken, pageSize)));
+  }
+
+  @Test
+  public void testMatchesInPages() {
+    for (int i = 1; i <= 3; i++) {
+      String gameId = "history-game-" + i;
+      gameEvents.publish(new GameEvent.GameStarted("history1", "history" + (i + 1)), gameId);
+      gameEvents.publish(new GameEvent.CompactMoveMade(0, Move.ROCK), gameId);
+      gameEvents.publish(new GameEvent.GameOver("history1", "history" + (i + 1), 1000L * i), gameId);
+    }
+    gameEvents.publish(new GameEvent.GameStarted("history1", "history9"), "history-game-4");
+
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .ignoreExceptions()
+        .untilAsserted(() -> assertEquals(3, page("history1", "", 10).matches().size()));
+
+    var first = page("history1", "", 2);
+    assertEquals("history-game-3", first.matches().get(0).gameId());
+    assertEquals("history-game-2", first.matches().get(1).gameId());
+    assertTrue(first.hasMore());
+
+    var second = page("history1", first.nextPageToken(), 2);
+    assertEquals(1, second.matches().size());
+    assertEquals("history-game-1", second.matches().get(0).gameId());
+    assertFalse(second.hasMore());
+
+    var opponent = page("history3", "", 10);
+    assertEquals(1, opponent.matches().size());
+    assertEquals("history1", opponent.matches().get(0).winnerId());
+  }
+}
@@ -0,0 +1,42 @@
+package io.akka.sample.application;
+
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TracingTest {
+
+    // at INFO level, see include-dev-loggers.xml
+    private static final String LOGGER = "io.akka.sample.application.TracingTest";
+
+    @Test
+    public void testSampleRate() {
+        assertFalse(new Tracing(LoggerFactory.getLogger(LOGGER), 0.0).sampled());
+        assertTrue(new Tracing(LoggerFactory.getLogger(LOGGER), 1.0).sampled());
+
+        var tracing = new Tracing(LoggerFactory.getLogger(LOGGER), 0.5);
+        int sampled = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (tracing.sampled()) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled > 4_000 && sampled < 6_000, "sampled " + sampled + " of 10000");
+    }
+
+    @Test
+    public void testForComponent() {
+        var config = ConfigFactory.parseString("""
+            rock-paper-scissors.tracing {
+              sample-rate = 0
+              component-sample-rates { GameEntity = 1 }
+            }
+            """);
+
+        assertTrue(Tracing.forComponent(GameEntity.class, config).sampled());
+        assertFalse(Tracing.forComponent(LobbyEntity.class, config).sampled());
+    }
+}
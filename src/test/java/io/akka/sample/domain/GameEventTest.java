@@ -0,0 +1,53 @@
+package io.akka.sample.domain;
+
+import akka.javasdk.JsonSupport;
+import io.akka.sample.domain.Game.Move;
+import io.akka.sample.domain.GameEvent.CompactMoveMade;
+import io.akka.sample.domain.GameEvent.GameOver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GameEventTest {
+
+    @Test
+    public void testCompactMoveMadeJson() throws Exception {
+        var event = new CompactMoveMade(1, Move.SCISSORS);
+
+        String json = JsonSupport.getObjectMapper().writeValueAsString(event);
+
+        assertEquals("{\"p\":1,\"m\":2}", json);
+        assertEquals(event, JsonSupport.getObjectMapper().readValue(json, CompactMoveMade.class));
+        assertEquals(Move.SCISSORS, event.move());
+    }
+
+    @Test
+    public void testCompactMoveMadeOnGame() {
+        var game = new Game("player1", Optional.of("player2"));
+        var event = new CompactMoveMade(game.playerIndex("player2"), Move.PAPER);
+
+        game = game.addMove(0, Move.ROCK).addMove(event.playerIndex(), event.move());
+
+        assertEquals(0, game.getFirstPlayerScore());
+        assertEquals(1, game.getSecondPlayerScore());
+        assertEquals(-1, game.playerIndex("player3"));
+    }
+
+    @Test
+    public void testGameOverWithoutEndTime() throws Exception {
+        var event = JsonSupport.getObjectMapper()
+            .readValue("{\"winnerId\":\"player1\",\"loserId\":\"player2\"}", GameOver.class);
+
+        assertEquals(new GameOver("player1", "player2", 0), event);
+    }
+
+    @Test
+    public void testCompactMoveMadeWithInvalidOrdinal() throws Exception {
+        var event = JsonSupport.getObjectMapper().readValue("{\"p\":0,\"m\":3}", CompactMoveMade.class);
+        assertThrows(IllegalArgumentException.class, event::move);
+        assertThrows(IllegalArgumentException.class, () -> new CompactMoveMade(0, -1).move());
+    }
+}
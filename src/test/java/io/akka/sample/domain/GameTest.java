@@ -1,9 +1,13 @@
 package io.akka.sample.domain;
 
+import akka.javasdk.JsonSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static io.akka.sample.domain.Game.Move.*;
 import static io.akka.sample.domain.Game.Result.*;
@@ -144,4 +148,91 @@ public class GameTest {
         assertEquals(2, game.getFirstPlayerScore());
         assertEquals(0, game.getSecondPlayerScore());
     }
+
+    @Test
+    public void testScoresAfterLongTieStreak() {
+        for (int i = 0; i < 1000; i++) {
+            game = game.addMove("player1", ROCK);
+            game = game.addMove("player2", ROCK);
+        }
+        game = game.addMove("player1", PAPER);
+        game = game.addMove("player2", ROCK);
+        assertEquals(1001, game.completedRounds());
+        assertEquals(1, game.getFirstPlayerScore());
+        assertEquals(0, game.getSecondPlayerScore());
+        assertEquals(IN_PROGRESS, game.evaluateWinner());
+    }
+
+    @Test
+    public void testWinnerIsKeptAfterFurtherRounds() {
+        game = game.addMove("player1", ROCK);
+        game = game.addMove("player2", SCISSORS);
+        game = game.addMove("player1", ROCK);
+        game = game.addMove("player2", SCISSORS);
+        game = game.addMove("player1", ROCK);
+        game = game.addMove("player2", PAPER);
+        game = game.addMove("player1", ROCK);
+        game = game.addMove("player2", PAPER);
+        assertEquals(PLAYER_ONE_WINS, game.evaluateWinner());
+        assertEquals(2, game.getFirstPlayerScore());
+        assertEquals(2, game.getSecondPlayerScore());
+    }
+
+    @Test
+    public void testScoresDerivedFromMovesWithoutResult() {
+        // same as a snapshot stored before scores and result were part of the state
+        game = new Game("player1", Optional.of("player2"),
+            List.of(ROCK, ROCK, SCISSORS), List.of(ROCK, PAPER, PAPER));
+        assertEquals(1, game.getFirstPlayerScore());
+        assertEquals(1, game.getSecondPlayerScore());
+        assertEquals(IN_PROGRESS, game.evaluateWinner());
+
+        game = game.addMove("player1", ROCK);
+        game = game.addMove("player2", SCISSORS);
+        assertEquals(2, game.getFirstPlayerScore());
+        assertEquals(PLAYER_ONE_WINS, game.evaluateWinner());
+    }
+
+    @Test
+    public void testDerivedScoresMatchIncrementalScores() {
+        var random = new Random(17);
+        var moves = Game.Move.values();
+        for (int n = 0; n < 100; n++) {
+            game = new Game("player1", Optional.of("player2"));
+            int rounds = random.nextInt(100);
+            for (int i = 0; i < rounds; i++) {
+                game = game.addMove("player1", moves[random.nextInt(3)]);
+                game = game.addMove("player2", moves[random.nextInt(3)]);
+            }
+            var derived = new Game("player1", Optional.of("player2"),
+                new ArrayList<>(game.getFirstPlayerMoves()), new ArrayList<>(game.getSecondPlayerMoves()));
+            assertEquals(game, derived);
+        }
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        var mapper = JsonSupport.getObjectMapper();
+        for (int i = 0; i < 100; i++) {
+            game = game.addMove("player1", SCISSORS);
+            game = game.addMove("player2", SCISSORS);
+        }
+        game = game.addMove("player1", ROCK);
+        var json = mapper.writeValueAsString(game);
+        assertEquals(game, mapper.readValue(json, Game.class));
+    }
+
+    @Test
+    public void testJsonWithMoveNamesAndWithoutScores() throws Exception {
+        // format of snapshots stored before moves were packed and scores were part of the state
+        var json = """
+            {"firstPlayerId":"player1","secondPlayerId":"player2",
+             "firstPlayerMoves":["ROCK","ROCK","PAPER"],"secondPlayerMoves":["SCISSORS","ROCK"]}""";
+        game = JsonSupport.getObjectMapper().readValue(json, Game.class);
+        assertEquals(List.of(ROCK, ROCK, PAPER), game.getFirstPlayerMoves());
+        assertEquals(List.of(SCISSORS, ROCK), game.getSecondPlayerMoves());
+        assertEquals(1, game.getFirstPlayerScore());
+        assertEquals(0, game.getSecondPlayerScore());
+        assertEquals(IN_PROGRESS, game.evaluateWinner());
+    }
 }
@@ -0,0 +1,158 @@
+package io.akka.sample.domain;
+
+import akka.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MatchmakingQueueTest {
+
+    private static List<String> waitingIds(MatchmakingQueue queue) {
+        return queue.waiting().stream().map(MatchmakingQueue.WaitingPlayer::playerId).toList();
+    }
+
+    @Test
+    public void testEnqueueMatchesWithWaitingPlayer() {
+        var queue = MatchmakingQueue.empty().enqueue("queue1", "player1", 1500, 100);
+        assertEquals(List.of("player1"), waitingIds(queue));
+        assertTrue(queue.isWaiting("player1"));
+        assertSame(queue, queue.enqueue("queue1", "player1", 1500, 200));
+
+        queue = queue.enqueue("queue1", "player2", 1550, 200);
+
+        assertTrue(queue.waiting().isEmpty());
+        assertEquals(1, queue.pendingMatches().size());
+        var match = queue.pendingMatches().get(0);
+        assertEquals("player1", match.player1().playerId());
+        assertEquals("player2", match.player2().playerId());
+        assertEquals(200, match.matchedAtMillis());
+        // waiting for the game to be started
+        assertTrue(queue.isWaiting("player2"));
+        assertSame(queue, queue.enqueue("queue1", "player2", 1550, 300));
+    }
+
+    @Test
+    public void testEnqueueMatchesClosestNeighbour() {
+        var queue = MatchmakingQueue.empty()
+            .enqueue("queue1", "player1", 1300, 0)
+            .enqueue("queue1", "player2", 1700, 0)
+            .enqueue("queue1", "player3", 1650, 1);
+
+        assertEquals(List.of("player1"), waitingIds(queue));
+        var match = queue.pendingMatches().get(0);
+        assertEquals("player2", match.player1().playerId());
+        assertEquals("player3", match.player2().playerId());
+    }
+
+    @Test
+    public void testEnqueueUsesWindowOfWaitingPlayer() {
+        var queue = MatchmakingQueue.empty().enqueue("queue1", "player1", 1500, 0);
+
+        assertEquals(2, queue.enqueue("queue1", "player2", 1800, 3999).waiting().size());
+        // the window of player1 has grown to 300 after 4 seconds
+        assertTrue(queue.enqueue("queue1", "player2", 1800, 4000).waiting().isEmpty());
+    }
+
+    @Test
+    public void testWithStartedMatches() {
+        var queue = MatchmakingQueue.empty()
+            .enqueue("queue1", "player1", 1500, 100)
+            .enqueue("queue1", "player2", 1500, 200)
+            .enqueue("queue1", "player3", 1500, 300);
+        var matches = List.copyOf(queue.pendingMatches());
+
+        queue = queue.withStartedMatches(matches, 1000);
+
+        assertEquals(List.of("player3"), waitingIds(queue));
+        assertTrue(queue.pendingMatches().isEmpty());
+        assertFalse(queue.isWaiting("player1"));
+        assertSame(queue, queue.withStartedMatches(matches, 2000));
+
+        var stats = queue.stats(1300);
+        assertEquals(1, stats.waitingPlayers());
+        assertEquals(1000, stats.oldestWaitMillis());
+        assertEquals(2, stats.matchedPlayers());
+        assertEquals(850, stats.averageWaitMillis());
+        assertEquals(900, stats.maxWaitMillis());
+    }
+
+    @Test
+    public void testMatchWaitingWithGrownWindows() {
+        var queue = MatchmakingQueue.empty()
+            .enqueue("queue1", "player1", 1500, 0)
+            .enqueue("queue1", "player2", 1900, 1)
+            .enqueue("queue1", "player3", 1250, 2)
+            .enqueue("queue1", "player4", 2150, 3);
+        assertEquals(4, queue.waiting().size());
+        assertSame(queue, queue.matchWaiting("queue1", 3));
+
+        // the windows have grown to 300 after 4 seconds
+        var matched = queue.matchWaiting("queue1", 4003);
+
+        assertTrue(matched.waiting().isEmpty());
+        assertEquals(2, matched.pendingMatches().size());
+        var pairs = matched.pendingMatches().stream()
+            .map(match -> List.of(match.player1().playerId(), match.player2().playerId()))
+            .toList();
+        assertTrue(pairs.contains(List.of("player1", "player3")));
+        assertTrue(pairs.contains(List.of("player2", "player4")));
+        assertNotEquals(matched.pendingMatches().get(0).gameId(), matched.pendingMatches().get(1).gameId());
+    }
+
+    @Test
+    public void testMatchWaitingPrefersLongestWaitingOfEquallyClose() {
+        var queue = MatchmakingQueue.empty()
+            .enqueue("queue1", "player1", 1500, 0)
+            .enqueue("queue1", "player2", 1650, 1000)
+            .enqueue("queue1", "player3", 1350, 2000);
+
+        // the window of player1 has grown to 200, player2 and player3 are 150 away
+        var matched = queue.matchWaiting("queue1", 2000);
+
+        assertEquals(List.of("player3"), waitingIds(matched));
+        var match = matched.pendingMatches().get(0);
+        assertEquals("player1", match.player1().playerId());
+        assertEquals("player2", match.player2().playerId());
+    }
+
+    @Test
+    public void testWaitingPlayersInRatingOrder() throws Exception {
+        var queue = MatchmakingQueue.empty()
+            .enqueue("queue1", "player1", 1900, 0)
+            .enqueue("queue1", "player2", 1100, 1)
+            .enqueue("queue1", "player3", 1500, 2)
+            .enqueue("queue1", "player4", 1300, 3);
+        assertEquals(List.of("player2", "player4", "player3", "player1"), waitingIds(queue));
+
+        // stored in join order, with the recent matches, before the matches were kept by the players
+        var json = """
+            {"waiting":[{"playerId":"player1","joinedAtMillis":0,"rating":1600},
+              {"playerId":"player2","joinedAtMillis":1,"rating":1400}],
+             "recentMatches":[],"matchedPlayers":0,"totalWaitMillis":0,"maxWaitMillis":0}""";
+        var read = JsonSupport.getObjectMapper().readValue(json, MatchmakingQueue.class);
+        assertEquals(List.of("player2", "player1"), waitingIds(read));
+        assertTrue(read.pendingMatches().isEmpty());
+        assertEquals(1, read.stats(1).oldestWaitMillis());
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        var queue = MatchmakingQueue.empty()
+            .enqueue("queue1", "player1", 1500, 100)
+            .enqueue("queue1", "player2", 1500, 200)
+            .enqueue("queue1", "player3", 1500, 300);
+
+        var json = JsonSupport.getObjectMapper().writeValueAsString(queue);
+        var read = JsonSupport.getObjectMapper().readValue(json, MatchmakingQueue.class);
+        assertEquals(queue, read);
+        assertTrue(read.isWaiting("player1"));
+        assertTrue(read.isWaiting("player3"));
+        assertEquals(queue.pendingMatches(), read.withStartedMatches(List.of(), 0).pendingMatches());
+    }
+}
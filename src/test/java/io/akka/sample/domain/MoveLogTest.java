@@ -0,0 +1,130 @@
+package io.akka.sample.domain;
+
+import akka.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.akka.sample.domain.Game.Move.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MoveLogTest {
+
+    @Test
+    public void testAppend() {
+        MoveLog log = MoveLog.empty().append(ROCK).append(PAPER).append(SCISSORS);
+        assertEquals(List.of(ROCK, PAPER, SCISSORS), log);
+        assertEquals(3, log.size());
+        assertEquals(PAPER, log.get(1));
+    }
+
+    @Test
+    public void testAppendDoesNotChangeOriginal() {
+        MoveLog log1 = MoveLog.empty().append(ROCK);
+        MoveLog log2 = log1.append(PAPER);
+        assertEquals(List.of(ROCK), log1);
+        assertEquals(List.of(ROCK, PAPER), log2);
+    }
+
+    @Test
+    public void testAppendToOlderVersion() {
+        MoveLog base = MoveLog.empty().append(ROCK);
+        MoveLog branch1 = base.append(PAPER);
+        MoveLog branch2 = base.append(SCISSORS);
+        assertEquals(List.of(ROCK, PAPER), branch1);
+        assertEquals(List.of(ROCK, SCISSORS), branch2);
+        assertEquals(List.of(ROCK, PAPER, ROCK), branch1.append(ROCK));
+        assertEquals(List.of(ROCK, SCISSORS, ROCK), branch2.append(ROCK));
+    }
+
+    @Test
+    public void testManyAppends() {
+        MoveLog log = MoveLog.empty();
+        for (int i = 0; i < 10000; i++) {
+            log = log.append(Game.Move.values()[i % 3]);
+        }
+        assertEquals(10000, log.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Game.Move.values()[i % 3], log.get(i));
+        }
+    }
+
+    @Test
+    public void testCopyOf() {
+        MoveLog log = MoveLog.copyOf(List.of(ROCK, PAPER));
+        assertEquals(List.of(ROCK, PAPER), log);
+        assertSame(log, MoveLog.copyOf(log));
+        assertTrue(MoveLog.copyOf(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testGetOutOfBounds() {
+        MoveLog log = MoveLog.empty().append(ROCK).append(PAPER);
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(2));
+        // a longer version sharing the same backing array must not be visible
+        log.append(SCISSORS);
+        assertThrows(IndexOutOfBoundsException.class, () -> log.get(2));
+    }
+
+    @Test
+    public void testBeatsMask() {
+        MoveLog first = MoveLog.copyOf(List.of(ROCK, PAPER, SCISSORS, ROCK, ROCK));
+        MoveLog second = MoveLog.copyOf(List.of(SCISSORS, ROCK, PAPER, PAPER));
+        // the fifth move has no opponent move yet
+        assertEquals(0b00_01_01_01L, first.beatsMask(second, 0));
+        assertEquals(0b01_00_00_00L, second.beatsMask(first, 0));
+        assertEquals(0L, first.beatsMask(second, 1));
+    }
+
+    @Test
+    public void testBeatsMaskSecondWord() {
+        MoveLog first = MoveLog.empty();
+        MoveLog second = MoveLog.empty();
+        for (int i = 0; i < MoveLog.MOVES_PER_WORD; i++) {
+            first = first.append(ROCK);
+            second = second.append(ROCK);
+        }
+        first = first.append(PAPER).append(PAPER);
+        second = second.append(ROCK).append(SCISSORS);
+        assertEquals(0L, first.beatsMask(second, 0));
+        assertEquals(0b01L, first.beatsMask(second, 1));
+        assertEquals(0b01_00L, second.beatsMask(first, 1));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        var mapper = JsonSupport.getObjectMapper();
+        MoveLog log = MoveLog.empty();
+        for (int i = 0; i < 1001; i++) {
+            log = log.append(Game.Move.values()[(i * 7) % 3]);
+            assertEquals(log, mapper.readValue(mapper.writeValueAsString(log), MoveLog.class));
+        }
+    }
+
+    @Test
+    public void testJsonOfOlderVersion() throws Exception {
+        var mapper = JsonSupport.getObjectMapper();
+        MoveLog log = MoveLog.empty().append(PAPER);
+        // moves appended by a later version sharing the same backing array must not be written
+        log.append(SCISSORS).append(SCISSORS);
+        assertEquals("\"1:AQ==\"", mapper.writeValueAsString(log));
+        assertEquals(List.of(PAPER), mapper.readValue(mapper.writeValueAsString(log), MoveLog.class));
+    }
+
+    @Test
+    public void testJsonFromMoveNames() throws Exception {
+        var mapper = JsonSupport.getObjectMapper();
+        assertEquals(List.of(ROCK, SCISSORS), mapper.readValue("[\"ROCK\",\"SCISSORS\"]", MoveLog.class));
+    }
+
+    @Test
+    public void testJsonWithInvalidMove() {
+        var mapper = JsonSupport.getObjectMapper();
+        // the first of the two moves has the value 3, which isn't a move
+        var error = assertThrows(Exception.class, () -> mapper.readValue("\"2:Aw==\"", MoveLog.class));
+        assertTrue(error.getMessage().contains("move 0 has value 3"));
+    }
+}
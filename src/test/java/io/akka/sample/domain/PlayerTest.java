@@ -0,0 +1,85 @@
+package io.akka.sample.domain;
+
+import akka.javasdk.JsonSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlayerTest {
+
+    @Test
+    public void testIncrementWinsAndLosses() {
+        var player = new Player("player1", "Alice")
+            .incrementWins("game1")
+            .incrementLosses("game2")
+            .incrementWins("game3");
+        assertEquals(2, player.gamesWon());
+        assertEquals(1, player.gamesLost());
+        assertEquals(List.of("game1", "game2", "game3"), player.recentGameIds());
+    }
+
+    @Test
+    public void testGameRecordedOnlyOnce() {
+        var player = new Player("player1", "Alice").incrementWins("game1");
+        assertSame(player, player.incrementWins("game1"));
+        assertSame(player, player.incrementLosses("game1"));
+    }
+
+    @Test
+    public void testDefaultGameHistoryCapacity() {
+        var player = new Player("player1", "Alice");
+        for (int i = 0; i < 15; i++) {
+            player = player.incrementWins("game" + i);
+        }
+        assertEquals(Player.DEFAULT_GAME_HISTORY_CAPACITY, player.recentGameIds().size());
+        assertFalse(player.hasRecordedGame("game4"));
+        assertTrue(player.hasRecordedGame("game5"));
+    }
+
+    @Test
+    public void testLargerGameHistoryCapacity() {
+        var player = new Player("player1", "Alice", 1000);
+        for (int i = 0; i < 1500; i++) {
+            player = player.incrementWins("game" + i);
+        }
+        assertEquals(1000, player.recentGameIds().size());
+        assertFalse(player.hasRecordedGame("game499"));
+        assertTrue(player.hasRecordedGame("game500"));
+        assertEquals(1500, player.gamesWon());
+    }
+
+    @Test
+    public void testJsonWithoutGameHistoryCapacity() throws Exception {
+        // format of state stored before the capacity was configurable
+        var json = """
+            {"id":"player1","name":"Alice","gamesWon":1,"gamesLost":1,"recentGameIds":["game1","game2"]}""";
+        var player = JsonSupport.getObjectMapper().readValue(json, Player.class);
+        assertEquals(Player.DEFAULT_GAME_HISTORY_CAPACITY, player.gameHistoryCapacity());
+        assertEquals(Rating.INITIAL, player.rating());
+        assertTrue(player.hasRecordedGame("game2"));
+        assertEquals(player, JsonSupport.getObjectMapper().readValue(
+            JsonSupport.getObjectMapper().writeValueAsString(player), Player.class));
+    }
+
+    @Test
+    public void testRatingUpdatedFromResults() {
+        var winner = new Player("player1", "Alice")
+            .recordResults(List.of(new Player.GameResult("game1", true, Rating.INITIAL)));
+        var loser = new Player("player2", "Bob")
+            .recordResults(List.of(new Player.GameResult("game1", false, Rating.INITIAL)));
+
+        assertEquals(Rating.INITIAL + 16, winner.rating());
+        assertEquals(Rating.INITIAL - 16, loser.rating());
+        assertSame(winner, winner.recordResults(List.of(new Player.GameResult("game1", true, Rating.INITIAL))));
+
+        // beating a much weaker player gains less
+        var favorite = new Player("player3", "Charlie").withRating(1900)
+            .recordResults(List.of(new Player.GameResult("game2", true, 1500)));
+        assertEquals(1903, favorite.rating());
+    }
+}
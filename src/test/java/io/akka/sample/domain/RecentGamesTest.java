@@ -0,0 +1,68 @@
+package io.akka.sample.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecentGamesTest {
+
+    @Test
+    public void testAppendAndContains() {
+        RecentGames recent = RecentGames.empty(3).append("game1").append("game2");
+        assertEquals(List.of("game1", "game2"), recent);
+        assertTrue(recent.contains("game1"));
+        assertFalse(recent.contains("game3"));
+    }
+
+    @Test
+    public void testEvictsOldest() {
+        RecentGames recent = RecentGames.empty(3);
+        for (int i = 1; i <= 10; i++) {
+            recent = recent.append("game" + i);
+        }
+        assertEquals(List.of("game8", "game9", "game10"), recent);
+        assertFalse(recent.contains("game7"));
+        assertTrue(recent.contains("game8"));
+    }
+
+    @Test
+    public void testAppendExisting() {
+        RecentGames recent = RecentGames.empty(3).append("game1").append("game2");
+        assertSame(recent, recent.append("game1"));
+    }
+
+    @Test
+    public void testAppendEvictedAgain() {
+        RecentGames recent = RecentGames.empty(2).append("game1").append("game2").append("game3");
+        recent = recent.append("game1");
+        assertEquals(List.of("game3", "game1"), recent);
+        assertTrue(recent.contains("game1"));
+        assertFalse(recent.contains("game2"));
+    }
+
+    @Test
+    public void testAppendToOlderVersion() {
+        RecentGames base = RecentGames.empty(3).append("game1");
+        RecentGames branch1 = base.append("game2");
+        RecentGames branch2 = base.append("game3");
+        assertEquals(List.of("game1"), base);
+        assertFalse(base.contains("game2"));
+        assertEquals(List.of("game1", "game2"), branch1);
+        assertFalse(branch1.contains("game3"));
+        assertEquals(List.of("game1", "game3"), branch2);
+        assertFalse(branch2.contains("game2"));
+    }
+
+    @Test
+    public void testCopyOf() {
+        RecentGames recent = RecentGames.copyOf(List.of("game1", "game2", "game3"), 2);
+        assertEquals(List.of("game2", "game3"), recent);
+        assertSame(recent, RecentGames.copyOf(recent, 2));
+        assertEquals(List.of("game3"), RecentGames.copyOf(recent, 1));
+    }
+}
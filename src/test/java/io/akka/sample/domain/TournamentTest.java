@@ -0,0 +1,112 @@
+package io.akka.sample.domain;
+
+import io.akka.sample.domain.Tournament.Entrant;
+import io.akka.sample.domain.Tournament.Pairing;
+import io.akka.sample.domain.Tournament.Standing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TournamentTest {
+
+    private static List<Entrant> entrants(int count) {
+        Bot[] bots = Bot.values();
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Entrant("bot-" + i, bots[i % bots.length]))
+            .toList();
+    }
+
+    private static String key(Pairing pairing) {
+        String first = pairing.first().playerId();
+        String second = pairing.second().playerId();
+        return first.compareTo(second) < 0 ? first + "/" + second : second + "/" + first;
+    }
+
+    @Test
+    public void testRoundRobinPairsEveryEntrantOnce() {
+        for (int count : new int[]{2, 5, 6}) {
+            var tournament = new Tournament(entrants(count));
+            List<List<Pairing>> rounds = tournament.roundRobinRounds();
+
+            Set<String> pairs = new HashSet<>();
+            for (List<Pairing> round : rounds) {
+                Set<String> playing = new HashSet<>();
+                for (Pairing pairing : round) {
+                    assertTrue(playing.add(pairing.first().playerId()));
+                    assertTrue(playing.add(pairing.second().playerId()));
+                    assertTrue(pairs.add(key(pairing)), "Paired twice: " + key(pairing));
+                }
+            }
+            assertEquals(count * (count - 1) / 2, pairs.size());
+        }
+    }
+
+    @Test
+    public void testSwissAvoidsRematches() {
+        var tournament = new Tournament(entrants(6));
+        Set<String> pairs = new HashSet<>();
+        for (int round = 0; round < 5; round++) {
+            List<Pairing> pairings = tournament.nextSwissRound();
+            assertEquals(3, pairings.size());
+            for (Pairing pairing : pairings) {
+                assertTrue(pairs.add(key(pairing)), "Rematch: " + key(pairing));
+                tournament.record(pairing, Game.Result.PLAYER_ONE_WINS);
+            }
+        }
+    }
+
+    @Test
+    public void testSwissPairsByScore() {
+        var tournament = new Tournament(entrants(4));
+        List<Pairing> first = tournament.nextSwissRound();
+        first.forEach(pairing -> tournament.record(pairing, Game.Result.PLAYER_ONE_WINS));
+
+        List<Pairing> second = tournament.nextSwissRound();
+        Set<String> winners = Set.of(first.get(0).first().playerId(), first.get(1).first().playerId());
+        assertEquals(winners, Set.of(second.get(0).first().playerId(), second.get(0).second().playerId()));
+    }
+
+    @Test
+    public void testStandings() {
+        var tournament = new Tournament(entrants(3));
+        var all = entrants(3);
+        tournament.record(new Pairing(all.get(0), all.get(1)), Game.Result.PLAYER_TWO_WINS);
+        tournament.record(new Pairing(all.get(1), all.get(2)), Game.Result.PLAYER_ONE_WINS);
+        tournament.record(new Pairing(all.get(0), all.get(2)), Game.Result.IN_PROGRESS);
+
+        List<Standing> standings = tournament.standings();
+        assertEquals(new Standing("bot-1", all.get(1).bot(), 2, 0, 0), standings.get(0));
+        assertEquals(new Standing("bot-0", all.get(0).bot(), 0, 1, 1), standings.get(1));
+        assertEquals(new Standing("bot-2", all.get(2).bot(), 0, 1, 1), standings.get(2));
+    }
+
+    @Test
+    public void testBotGamesEnd() {
+        var random = new SplittableRandom(42);
+        for (Bot first : Bot.values()) {
+            for (Bot second : Bot.values()) {
+                Game game = Bot.play("a", first, "b", second, random);
+                assertTrue(game.getFirstPlayerMoves().size() <= Bot.MAX_ROUNDS);
+                assertEquals(game.getFirstPlayerMoves().size(), game.getSecondPlayerMoves().size());
+            }
+        }
+        Game rockVsRock = Bot.play("a", Bot.ROCK, "b", Bot.ROCK, random);
+        assertEquals(Game.Result.IN_PROGRESS, rockVsRock.evaluateWinner());
+        assertEquals(Bot.MAX_ROUNDS, rockVsRock.getFirstPlayerMoves().size());
+    }
+
+    @Test
+    public void testBeatLastBeatsRock() {
+        Game game = Bot.play("a", Bot.BEAT_LAST, "b", Bot.ROCK, new SplittableRandom(1));
+        assertEquals(Game.Result.PLAYER_ONE_WINS, game.evaluateWinner());
+        assertFalse(game.getFirstPlayerMoves().isEmpty());
+    }
+}
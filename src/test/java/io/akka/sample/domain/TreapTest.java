@@ -0,0 +1,73 @@
+package io.akka.sample.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TreapTest {
+
+    private static List<Integer> elements(Treap<Integer> treap) {
+        List<Integer> elements = new ArrayList<>();
+        treap.forEach(elements::add);
+        return elements;
+    }
+
+    @Test
+    public void testSameAsTreeSet() {
+        var random = new SplittableRandom(42);
+        Treap<Integer> treap = Treap.empty(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 2000; i++) {
+            int element = random.nextInt(500);
+            if (random.nextBoolean()) {
+                treap = treap.with(element);
+                expected.add(element);
+            } else {
+                treap = treap.without(element);
+                expected.remove(element);
+            }
+        }
+
+        assertEquals(List.copyOf(expected), elements(treap));
+        assertEquals(expected.size(), treap.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(List.copyOf(expected).get(i), treap.get(i));
+        }
+        for (int element = -1; element <= 500; element++) {
+            assertEquals(Optional.ofNullable(expected.lower(element)), treap.lower(element));
+            assertEquals(Optional.ofNullable(expected.higher(element)), treap.higher(element));
+            assertEquals(expected.contains(element) ? Optional.of(element) : Optional.empty(), treap.find(element));
+        }
+    }
+
+    @Test
+    public void testVersionsAreKept() {
+        Treap<Integer> treap = Treap.empty(Comparator.naturalOrder());
+        var oneTwo = treap.with(2).with(1);
+        var withThree = oneTwo.with(3);
+        var withoutOne = withThree.without(1);
+
+        assertEquals(List.of(1, 2), elements(oneTwo));
+        assertEquals(List.of(1, 2, 3), elements(withThree));
+        assertEquals(List.of(2, 3), elements(withoutOne));
+        assertSame(withoutOne, withoutOne.without(1));
+    }
+
+    @Test
+    public void testWithReplacesEqualElement() {
+        Treap<String> treap = Treap.<String>empty(Comparator.comparing(String::length)).with("a").with("bb");
+
+        var replaced = treap.with("c");
+
+        assertEquals(2, replaced.size());
+        assertEquals(Optional.of("c"), replaced.find("x"));
+    }
+}